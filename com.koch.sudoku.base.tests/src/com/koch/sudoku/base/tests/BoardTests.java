@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2006 George Koch.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    George Koch - initial API and implementation
+ *******************************************************************************/
+package com.koch.sudoku.base.tests;
+
+import junit.framework.TestCase;
+
+import com.koch.sudoku.base.Board;
+
+/**
+ * Tests of the trail of the board.
+ * 
+ * @author George Koch
+ */
+public class BoardTests extends TestCase {
+    public void testRewindRestoresCells() {
+        final Board board = new Board();
+        board.move(0, 0, 5);
+        final String before = describe(board);
+        final int mark = board.mark();
+        // the moves run the simplifiers, which clear many available numbers
+        board.move(4, 4, 1);
+        board.move(8, 2, 7);
+        board.clear(3, 6, 9);
+        assertFalse(before.equals(describe(board)));
+        board.rewind(mark);
+        assertEquals(before, describe(board));
+    }
+
+    public void testNestedMarks() {
+        final Board board = new Board();
+        final String empty = describe(board);
+        final int first = board.mark();
+        board.move(1, 1, 3);
+        final String middle = describe(board);
+        final int second = board.mark();
+        board.move(7, 7, 3);
+        board.rewind(second);
+        assertEquals(middle, describe(board));
+        board.rewind(first);
+        assertEquals(empty, describe(board));
+    }
+
+    /**
+     * Returns the value and the available numbers of every cell.
+     */
+    static String describe(final Board board) {
+        final StringBuffer buffer = new StringBuffer();
+        for (int y = 0; y < 9; y++) {
+            for (int x = 0; x < 9; x++) {
+                buffer.append(board.getCell(x, y).getValue()).append(':');
+                buffer.append(board.getCell(x, y).getBitMask()).append(' ');
+            }
+        }
+        return buffer.toString();
+    }
+}
\ No newline at end of file
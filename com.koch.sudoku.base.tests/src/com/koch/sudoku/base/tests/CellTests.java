@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2006 George Koch.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    George Koch - initial API and implementation
+ *******************************************************************************/
+package com.koch.sudoku.base.tests;
+
+import junit.framework.TestCase;
+
+import com.koch.sudoku.base.Cell;
+
+/**
+ * Tests of the available numbers of a cell.
+ * 
+ * @author George Koch
+ */
+public class CellTests extends TestCase {
+    private Cell cell = new Cell();
+
+    public void testNewCell() {
+        assertEquals(0, cell.getValue());
+        assertEquals(9, cell.getAvailableNumberCount());
+        assertEquals(0x1ff, cell.getBitMask());
+        assertAvailable("123456789");
+    }
+
+    public void testClear() {
+        assertTrue(cell.clear(5));
+        assertFalse(cell.clear(5));
+        assertFalse(cell.hasAvailableNumber(5));
+        assertTrue(cell.hasAvailableNumber(4));
+        assertEquals(8, cell.getAvailableNumberCount());
+        assertEquals(0x1ff & ~(1 << 4), cell.getBitMask());
+        assertAvailable("12346789");
+        for (int number = 1; number <= 9; number++) {
+            cell.clear(number);
+        }
+        assertEquals(0, cell.getAvailableNumberCount());
+        assertEquals(0, cell.getBitMask());
+    }
+
+    public void testSet() {
+        assertFalse(cell.set(3));
+        cell.clear(3);
+        cell.clear(1);
+        cell.clear(8);
+        assertTrue(cell.set(3));
+        assertFalse(cell.set(3));
+        assertTrue(cell.hasAvailableNumber(3));
+        assertEquals(7, cell.getAvailableNumberCount());
+        // the numbers are listed in increasing order, whatever order they were restored in
+        assertAvailable("2345679");
+        cell.set(8);
+        cell.set(1);
+        assertAvailable("123456789");
+    }
+
+    public void testValue() {
+        cell.setValue(7);
+        assertEquals(7, cell.getValue());
+        // the value does not change the available numbers
+        assertEquals(9, cell.getAvailableNumberCount());
+        cell.resetValue();
+        assertEquals(0, cell.getValue());
+    }
+
+    private void assertAvailable(final String expected) {
+        final StringBuffer buffer = new StringBuffer();
+        for (int index = 0; index < cell.getAvailableNumberCount(); index++) {
+            buffer.append(cell.getAvailableNumber(index));
+        }
+        assertEquals(expected, buffer.toString());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2006 George Koch.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    George Koch - initial API and implementation
+ *******************************************************************************/
+package com.koch.sudoku.base.tests;
+
+import junit.framework.TestCase;
+
+import com.koch.sudoku.base.Board;
+import com.koch.sudoku.base.Generator;
+import com.koch.sudoku.base.Solver;
+
+/**
+ * Tests of the seeded puzzle generator.
+ * 
+ * @author George Koch
+ */
+public class GeneratorTests extends TestCase {
+    public void testSameSeedSamePuzzle() {
+        assertEquals(new Generator(42).generate(false).toString(), new Generator(42).generate(false).toString());
+        assertEquals(new Generator(42).generate(true).toString(), new Generator(42).generate(true).toString());
+        assertFalse(new Generator(42).generate(false).toString().equals(new Generator(43).generate(false).toString()));
+    }
+
+    public void testUniqueSolution() {
+        final Generator generator = new Generator(7);
+        for (int i = 0; i < 3; i++) {
+            assertUnique(generator.generate(false));
+            assertUnique(generator.generate(true));
+        }
+    }
+
+    public void testParallelGenerators() throws Exception {
+        final int count = 4;
+        final String[] expected = new String[count];
+        for (int i = 0; i < count; i++) {
+            expected[i] = new Generator(i).generate(false).toString();
+        }
+        // the generators share the unit tables only
+        final String[] actual = new String[count];
+        final Thread[] threads = new Thread[count];
+        for (int i = 0; i < count; i++) {
+            final int seed = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    actual[seed] = new Generator(seed).generate(false).toString();
+                }
+            };
+        }
+        for (int i = 0; i < count; i++) {
+            threads[i].start();
+        }
+        for (int i = 0; i < count; i++) {
+            threads[i].join();
+        }
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected[i], actual[i]);
+        }
+    }
+
+    /**
+     * Checks a copy of the givens, so nothing is left from the generation.
+     */
+    private void assertUnique(final Board puzzle) {
+        final Board board = new Board();
+        for (int x = 0; x < 9; x++) {
+            for (int y = 0; y < 9; y++) {
+                final int value = puzzle.getCell(x, y).getValue();
+                if (value != 0) {
+                    board.move(x, y, value);
+                }
+            }
+        }
+        assertEquals(Solver.Solvability.DONE, new Solver(board).getSolvability());
+    }
+}
\ No newline at end of file
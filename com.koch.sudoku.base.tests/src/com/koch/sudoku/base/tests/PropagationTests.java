@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2006 George Koch.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    George Koch - initial API and implementation
+ *******************************************************************************/
+package com.koch.sudoku.base.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.koch.sudoku.base.Board;
+import com.koch.sudoku.base.Cell;
+import com.koch.sudoku.base.Movement;
+import com.koch.sudoku.base.Solver;
+import com.koch.sudoku.simplifiers.BoxSimplifier;
+import com.koch.sudoku.simplifiers.CellSimplifier;
+import com.koch.sudoku.simplifiers.Naked1Simplifier;
+import com.koch.sudoku.simplifiers.NakedPairsSimplifier;
+import com.koch.sudoku.simplifiers.RowAndColumnSimplifier;
+import com.koch.sudoku.simplifiers.Simplifier;
+
+/**
+ * Tests of the propagation of moves through the queue of changed units.
+ * 
+ * @author George Koch
+ */
+public class PropagationTests extends TestCase {
+    static final String[] PUZZLES = {
+        "000000010400000000020000000000050407008000300001090000300400200050100000000806000",
+        "000010563006000002000090000000704000080001000030000086000008400703000900410200070",
+        "050380000000900201800000000000853000030090000001000007000002030010008065507000000",
+        "000080700090004000204006000000018020060050180080000004375600000400300000000000507"
+    };
+
+    private final List<Simplifier> simplifiers = new ArrayList<Simplifier>();
+
+    protected void setUp() throws Exception {
+        simplifiers.add(new CellSimplifier());
+        simplifiers.add(new RowAndColumnSimplifier());
+        simplifiers.add(new BoxSimplifier());
+        simplifiers.add(new Naked1Simplifier());
+        simplifiers.add(new NakedPairsSimplifier());
+    }
+
+    public void testSameFixedPointAsFullSweep() {
+        for (int i = 0; i < PUZZLES.length; i++) {
+            final Board queued = new Board();
+            queued.setSimplifiers(simplifiers);
+            final Board swept = new Board();
+            swept.setSimplifiers(null);
+            final List<Movement> moves = new ArrayList<Movement>();
+            for (int index = 0; index < 81; index++) {
+                final int number = PUZZLES[i].charAt(index) - '0';
+                if (number != 0) {
+                    queued.move(index % 9, index / 9, number);
+                    swept.move(index % 9, index / 9, number);
+                    moves.add(new Movement(index % 9, index / 9, number));
+                }
+            }
+            sweep(swept, moves);
+            assertEquals(PUZZLES[i], BoardTests.describe(swept), BoardTests.describe(queued));
+        }
+    }
+
+    public void testEmptyCellIsIllegal() {
+        // the first row has 1 to 8, the first column has 9: the top left cell has no number left
+        final Board board = new Board();
+        for (int x = 1; x < 9; x++) {
+            board.move(x, 0, x);
+        }
+        board.move(0, 4, 9);
+        assertTrue(hasIllegalCell(board));
+        assertEquals(Solver.Solvability.NOT_SOLVABLE, new Solver(board).getSolvability());
+    }
+
+    public void testContradictionFoundByPropagation() {
+        // the first row has 1 to 7, leaving 8 and 9 for its first two cells; the 9s below take 9 from both of them,
+        // so they both need 8
+        final Board board = new Board();
+        for (int x = 2; x < 9; x++) {
+            board.move(x, 0, x - 1);
+        }
+        board.move(0, 4, 9);
+        board.move(1, 7, 9);
+        assertTrue(hasIllegalCell(board));
+        assertEquals(Solver.Solvability.NOT_SOLVABLE, new Solver(board).getSolvability());
+    }
+
+    /**
+     * Runs every simplifier over every move and every unit until nothing changes, like the board did before it
+     * queued the changed units.
+     */
+    private void sweep(final Board board, final List<Movement> moves) {
+        int size;
+        do {
+            size = board.mark();
+            for (int i = 0; i < simplifiers.size(); i++) {
+                final Simplifier simplifier = simplifiers.get(i);
+                for (int j = 0; j < moves.size(); j++) {
+                    simplifier.doIt(moves.get(j), board);
+                }
+                // rows, columns and boxes
+                for (int unit = 0; unit < 27; unit++) {
+                    simplifier.doIt(unit, board);
+                }
+            }
+        } while (board.mark() != size);
+    }
+
+    /**
+     * Tells whether an empty cell has no number left, which the solver takes as a contradiction.
+     */
+    private static boolean hasIllegalCell(final Board board) {
+        for (int x = 0; x < 9; x++) {
+            for (int y = 0; y < 9; y++) {
+                final Cell cell = board.getCell(x, y);
+                if (cell.getValue() == 0 && cell.getAvailableNumberCount() == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
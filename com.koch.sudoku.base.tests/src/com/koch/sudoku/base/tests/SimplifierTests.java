@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2006 George Koch.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    George Koch - initial API and implementation
+ *******************************************************************************/
+package com.koch.sudoku.base.tests;
+
+import junit.framework.TestCase;
+
+import com.koch.sudoku.base.Board;
+import com.koch.sudoku.base.Units;
+import com.koch.sudoku.simplifiers.BoxLineReductionSimplifier;
+import com.koch.sudoku.simplifiers.HiddenNSimplifier;
+import com.koch.sudoku.simplifiers.HiddenSinglesSimplifier;
+import com.koch.sudoku.simplifiers.PointingSimplifier;
+
+/**
+ * Tests of the unit simplifiers. Each fixture clears available numbers of an empty board (which runs no simplifier)
+ * and checks a single unit.
+ * 
+ * @author George Koch
+ */
+public class SimplifierTests extends TestCase {
+    private static final int ALL = 0x1ff;
+
+    private Board board;
+
+    protected void setUp() throws Exception {
+        board = new Board();
+        board.setSimplifiers(null);
+    }
+
+    public void testHiddenSingle() {
+        // 5 is only available at x = 4 in the first row
+        for (int x = 0; x < 9; x++) {
+            if (x != 4) {
+                board.clear(x, 0, 5);
+            }
+        }
+        new HiddenSinglesSimplifier().doIt(Units.getRow(0), board);
+        assertEquals(mask(5), board.getCell(4, 0).getBitMask());
+        assertEquals(ALL & ~mask(5), board.getCell(3, 0).getBitMask());
+        assertEquals(ALL, board.getCell(4, 1).getBitMask());
+    }
+
+    public void testHiddenPair() {
+        // 1 and 2 are only available at y = 0 and y = 1 in the first column
+        for (int y = 2; y < 9; y++) {
+            board.clear(0, y, 1);
+            board.clear(0, y, 2);
+        }
+        new HiddenNSimplifier(2, 3).doIt(Units.getColumn(0), board);
+        assertEquals(mask(1) | mask(2), board.getCell(0, 0).getBitMask());
+        assertEquals(mask(1) | mask(2), board.getCell(0, 1).getBitMask());
+        assertEquals(ALL & ~(mask(1) | mask(2)), board.getCell(0, 2).getBitMask());
+    }
+
+    public void testPointing() {
+        // in the first box, 7 is only available in the first row
+        for (int x = 0; x < 3; x++) {
+            for (int y = 1; y < 3; y++) {
+                board.clear(x, y, 7);
+            }
+        }
+        new PointingSimplifier().doIt(Units.getBox(0, 0), board);
+        for (int x = 0; x < 9; x++) {
+            assertEquals(x < 3, board.getCell(x, 0).hasAvailableNumber(7));
+        }
+        assertTrue(board.getCell(3, 1).hasAvailableNumber(7));
+        // only boxes are checked
+        new PointingSimplifier().doIt(Units.getRow(1), board);
+        assertTrue(board.getCell(3, 1).hasAvailableNumber(7));
+    }
+
+    public void testBoxLineReduction() {
+        // in the first row, 7 is only available in the first box
+        for (int x = 3; x < 9; x++) {
+            board.clear(x, 0, 7);
+        }
+        new BoxLineReductionSimplifier().doIt(Units.getRow(0), board);
+        for (int x = 0; x < 3; x++) {
+            assertTrue(board.getCell(x, 0).hasAvailableNumber(7));
+            assertFalse(board.getCell(x, 1).hasAvailableNumber(7));
+            assertFalse(board.getCell(x, 2).hasAvailableNumber(7));
+        }
+        assertTrue(board.getCell(3, 1).hasAvailableNumber(7));
+        assertTrue(board.getCell(0, 3).hasAvailableNumber(7));
+    }
+
+    private static int mask(final int number) {
+        return 1 << number - 1;
+    }
+}
\ No newline at end of file
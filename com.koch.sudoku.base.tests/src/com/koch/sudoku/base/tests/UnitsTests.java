@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2006 George Koch.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    George Koch - initial API and implementation
+ *******************************************************************************/
+package com.koch.sudoku.base.tests;
+
+import junit.framework.TestCase;
+
+import com.koch.sudoku.base.Units;
+
+/**
+ * Tests of the unit tables, against the cells the unit walker used to visit.
+ * 
+ * @author George Koch
+ */
+public class UnitsTests extends TestCase {
+    public void testRows() {
+        for (int y = 0; y < 9; y++) {
+            assertEquals(y, Units.getRow(y));
+            for (int index = 0; index < 9; index++) {
+                assertCell(index, y, Units.getRow(y), index);
+            }
+        }
+    }
+
+    public void testColumns() {
+        for (int x = 0; x < 9; x++) {
+            assertEquals(9 + x, Units.getColumn(x));
+            for (int index = 0; index < 9; index++) {
+                assertCell(x, index, Units.getColumn(x), index);
+            }
+        }
+    }
+
+    public void testBoxes() {
+        for (int box = 0; box < 9; box++) {
+            // the walker started a box at its top left cell and went left to right, then top to bottom
+            final int x = box % 3 * 3;
+            final int y = box / 3 * 3;
+            for (int index = 0; index < 9; index++) {
+                assertCell(x + index % 3, y + index / 3, 18 + box, index);
+                assertEquals(18 + box, Units.getBox(x + index % 3, y + index / 3));
+            }
+        }
+    }
+
+    public void testUnitsOfCell() {
+        for (int x = 0; x < 9; x++) {
+            for (int y = 0; y < 9; y++) {
+                final int units = Units.getUnits(x, y);
+                assertEquals(1 << Units.getRow(y) | 1 << Units.getColumn(x) | 1 << Units.getBox(x, y), units);
+                // every unit that has the cell, and no other
+                for (int unit = 0; unit < Units.COUNT; unit++) {
+                    boolean contains = false;
+                    for (int index = 0; index < 9; index++) {
+                        contains |= Units.getX(unit, index) == x && Units.getY(unit, index) == y;
+                    }
+                    assertEquals(contains, (units & 1 << unit) != 0);
+                }
+            }
+        }
+    }
+
+    private void assertCell(final int x, final int y, final int unit, final int index) {
+        assertEquals(x, Units.getX(unit, index));
+        assertEquals(y, Units.getY(unit, index));
+    }
+}
\ No newline at end of file
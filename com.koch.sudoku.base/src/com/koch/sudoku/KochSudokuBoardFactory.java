@@ -10,29 +10,64 @@
  *******************************************************************************/
 package com.koch.sudoku;
 
-import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.exceptions.CannotCreateSudokuBoardException;
+import org.eclipse.sudoku.core.models.PackedSudokuBoard;
 import org.eclipse.sudoku.core.models.SudokuBoard;
-import org.eclipse.sudoku.core.factories.SudokuBoardFactory;
+import org.eclipse.sudoku.core.factories.PrefetchingBoardPool;
+import org.eclipse.sudoku.core.factories.SeedableSudokuBoardFactory;
+import org.eclipse.sudoku.core.factories.SudokuBoardSource;
 
 import com.koch.sudoku.base.Board;
 import com.koch.sudoku.base.Generator;
 
-public class KochSudokuBoardFactory implements SudokuBoardFactory {
+/**
+ * Factory answering easy or hard puzzles from a {@link PrefetchingBoardPool}
+ * that is filled in the background by the {@link Generator}. Generators share
+ * no state, so the pool may run several of them at once.
+ * <p>
+ * The pool is shared by all instances of the factory, so instances that are
+ * created for other threads, or discarded and created again, reuse its boards
+ * and its background thread instead of starting their own.
+ */
+public class KochSudokuBoardFactory implements SeedableSudokuBoardFactory {
 
-	public SudokuBoard createNewBoard() {
-		final Board board = new Generator().generate(false);
-		final SudokuBoard sudokuBoard = new SudokuBoard();
+	private static final PrefetchingBoardPool<Boolean> POOL = new PrefetchingBoardPool<Boolean>(new SudokuBoardSource<Boolean>() {
+		public SudokuBoard createBoard(Boolean easy) {
+			return toSudokuBoard(new Generator().generate(easy.booleanValue()));
+		}
+	}, "Koch Sudoku Generator");
+
+	public KochSudokuBoardFactory() {
+		POOL.prefetch(Boolean.FALSE);
+	}
+
+	public SudokuBoard createNewBoard() throws CannotCreateSudokuBoardException {
+		return createNewBoard(false);
+	}
+
+	public SudokuBoard createNewBoard(boolean easy) throws CannotCreateSudokuBoardException {
+		return POOL.take(Boolean.valueOf(easy));
+	}
+
+	public SudokuBoard createNewBoard(long seed) {
+		return createNewBoard(false, seed);
+	}
+
+	public SudokuBoard createNewBoard(boolean easy, long seed) {
+		return toSudokuBoard(new Generator(seed).generate(easy));
+	}
+
+	private static SudokuBoard toSudokuBoard(final Board board) {
+		final PackedSudokuBoard packedBoard = new PackedSudokuBoard();
 		for (int x = 0; x < 9; x++) {
 			for (int y = 0; y < 9; y++) {
-				final com.koch.sudoku.base.Cell sourceCell = board.getCell(x, y);
-				final Cell targetCell = sudokuBoard.getCell(x, y);
-				final int value = sourceCell.getValue();
-				targetCell.setValue(value);
+				final int value = board.getCell(x, y).getValue();
 				if (value != 0) {
-					targetCell.makeGiven();
+					packedBoard.setValue(x, y, value);
+					packedBoard.makeGiven(x, y);
 				}
 			}
 		}
-		return sudokuBoard;
+		return packedBoard.toSudokuBoard();
 	}
 }
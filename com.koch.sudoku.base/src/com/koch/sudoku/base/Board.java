@@ -10,18 +10,19 @@
  *******************************************************************************/
 package com.koch.sudoku.base;
 
+import com.koch.sudoku.simplifiers.BoxLineReductionSimplifier;
 import com.koch.sudoku.simplifiers.BoxSimplifier;
 import com.koch.sudoku.simplifiers.CellSimplifier;
+import com.koch.sudoku.simplifiers.HiddenNSimplifier;
+import com.koch.sudoku.simplifiers.HiddenSinglesSimplifier;
 import com.koch.sudoku.simplifiers.Naked1Simplifier;
-import com.koch.sudoku.simplifiers.NakedNSimplifier;
 import com.koch.sudoku.simplifiers.NakedPairsSimplifier;
+import com.koch.sudoku.simplifiers.PointingSimplifier;
 import com.koch.sudoku.simplifiers.RowAndColumnSimplifier;
 import com.koch.sudoku.simplifiers.Simplifier;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Sudoku board. Contains the cells and performs moves/undos on them.
@@ -31,6 +32,15 @@ import java.util.Set;
  * 
  * <p>Values/available numbers of the cells are positive numbers and are less than 10.</p> 
  * 
+ * <p>Every change made to the cells is recorded on a trail. To undo moves, take a {@link #mark()} before making them
+ * and {@link #rewind(int)} to it afterwards. The trail is allocated with the board, so moving and undoing do not
+ * allocate.</p>
+ * 
+ * <p>Every unit that loses an available number is queued, and after a move the simplifiers check the queued units
+ * only, until none are left. So the work done after a move is proportional to what the move changed. A simplifier
+ * checks its queued units only when the simplifiers before it have nothing left to check, so the cheap ones listed
+ * first do most of the work.</p>
+ * 
  * @author George Koch
  */
 public class Board {
@@ -44,15 +54,50 @@ public class Board {
         SIMPLIFIERS.add(new CellSimplifier());
         SIMPLIFIERS.add(new RowAndColumnSimplifier());
         SIMPLIFIERS.add(new BoxSimplifier());
+        // cheapest first, the later ones only check what the earlier ones have left
         SIMPLIFIERS.add(new Naked1Simplifier());
+        SIMPLIFIERS.add(new HiddenSinglesSimplifier());
+        SIMPLIFIERS.add(new PointingSimplifier());
+        SIMPLIFIERS.add(new BoxLineReductionSimplifier());
         SIMPLIFIERS.add(new NakedPairsSimplifier());
-        SIMPLIFIERS.add(new NakedNSimplifier(3, 8));
+        SIMPLIFIERS.add(new HiddenNSimplifier(2, 3));
     }
 
+    /**
+     * Kinds of trail entries.
+     */
+    private static final int SET_VALUE = 0;
+    private static final int CLEAR = 1;
+
     private List<Simplifier> simplifiers;
 
     private final Cell[][] cells;
 
+    /**
+     * The changes made to the cells, oldest first, each packed as kind << 12 | x << 8 | y << 4 | number. Each cell
+     * is normally given a value and loses each of its 9 numbers at most once before being rewound, so 810 entries are
+     * enough; the trail grows if they are not.
+     */
+    private int[] trail = new int[81 * 10];
+    private int trailSize;
+
+    /**
+     * The units that have changed since they were last queued, bit u standing for unit u, and the units queued for
+     * each simplifier.
+     */
+    private int dirtyUnits;
+    private int[] uncheckedUnits = new int[0];
+
+    /**
+     * The move being made, passed to the simplifiers.
+     */
+    private final Movement currentMove = new Movement(0, 0, 0);
+
+    /**
+     * The places of each number in a unit, answered by {@link #getPositions(int)}.
+     */
+    private final int[] positions = new int[10];
+
     public Board() {
         cells = new Cell[9][9];
         reset();
@@ -62,7 +107,7 @@ public class Board {
      * Recreates the cells and restores the simplifiers.
      */
     private void reset() {
-        simplifiers = SIMPLIFIERS;
+        setSimplifiers(SIMPLIFIERS);
         for (int i = 0; i < 9; i++) {
             for (int j = 0; j < 9; j++) {
                 cells[i][j] = new Cell();
@@ -71,16 +116,25 @@ public class Board {
     }
 
     /**
-     * Undoes a set of movements.
+     * Returns the current position of the trail. Passing it to {@link #rewind(int)} undoes every change made since.
+     */
+    public int mark() {
+        return trailSize;
+    }
+
+    /**
+     * Undoes the changes made since the mark was taken, most recent first.
      * 
-     * @param undoMoves the movements to undo
+     * @param mark a position returned by {@link #mark()}
      */
-    public void undo(final Set<Movement> undoMoves) {
-        for (Movement undoMove : undoMoves) {
-            if (undoMove instanceof Movement.NormalMovement) {
-                cells[undoMove.x][undoMove.y].resetValue();
+    public void rewind(final int mark) {
+        while (trailSize > mark) {
+            final int entry = trail[--trailSize];
+            final Cell cell = cells[entry >> 8 & 0xf][entry >> 4 & 0xf];
+            if (entry >> 12 == SET_VALUE) {
+                cell.resetValue();
             } else {
-                cells[undoMove.x][undoMove.y].set(undoMove.number);
+                cell.set(entry & 0xf);
             }
         }
     }
@@ -89,30 +143,47 @@ public class Board {
      * Sets the value of the specified cell. Also executes the simplifiers to eliminate the freed available numbers. 
      * 
      * @param move the move object that contains the cell coordinates and the value to set. Must not be null.
-     * 
-     * @return the set of undo moves that will revert the move.
      */
-    public Set<Movement> move(final Movement move) {
-        final Set<Movement> undoMoves = new HashSet<Movement>();
+    public void move(final Movement move) {
+        move(move.x, move.y, move.number);
+    }
+
+    /**
+     * Sets the value of the specified cell. Also executes the simplifiers to eliminate the freed available numbers.
+     */
+    public void move(final int x, final int y, final int number) {
         // register movement
-        cells[move.x][move.y].setValue(move.number);
-        undoMoves.add(new Movement.NormalMovement(move));
+        cells[x][y].setValue(number);
+        push(SET_VALUE, x, y, number);
 
         if (simplifiers != null) {
-            int undoEnds = simplifiers.size();
-            int undoSize = undoMoves.size();
-            for (int i = 0; i < undoEnds; i++) {
-                final Simplifier simplifier = simplifiers.get(i % simplifiers.size());
-                simplifier.doIt(move, this, undoMoves);
-
-                final int newUndoSize = undoMoves.size();
-                if (newUndoSize > undoSize) {
-                    undoSize = newUndoSize;
-                    undoEnds = i + simplifiers.size();
+            currentMove.x = x;
+            currentMove.y = y;
+            currentMove.number = number;
+            final int size = simplifiers.size();
+            for (int i = 0; i < size; i++) {
+                simplifiers.get(i).doIt(currentMove, this);
+            }
+            // check the changed units (the simplifiers may change more of them)
+            int i = 0;
+            while (i < size) {
+                if (dirtyUnits != 0) {
+                    // queue them for every simplifier and start again with the first one
+                    for (int j = 0; j < size; j++) {
+                        uncheckedUnits[j] |= dirtyUnits;
+                    }
+                    dirtyUnits = 0;
+                    i = 0;
+                }
+                if (uncheckedUnits[i] == 0) {
+                    i++;
+                } else {
+                    final int unit = Integer.numberOfTrailingZeros(uncheckedUnits[i]);
+                    uncheckedUnits[i] &= uncheckedUnits[i] - 1;
+                    simplifiers.get(i).doIt(unit, this);
                 }
             }
         }
-        return undoMoves;
     }
 
     /**
@@ -121,22 +192,63 @@ public class Board {
      * @param x the x coordinate of the cell
      * @param y the y coordinate of the cell
      * @param number the number to delete
-     * @param undoMoves the set of unfo movements to extend.
      */
-    public void clear(final int x, final int y, final int number, final Set<Movement> undoMoves) {
+    public void clear(final int x, final int y, final int number) {
         if (cells[x][y].clear(number)) {
-            undoMoves.add(new Movement.ClearMovement(x, y, number));
+            push(CLEAR, x, y, number);
+            dirtyUnits |= Units.getUnits(x, y);
         }
     }
 
+    private void push(final int kind, final int x, final int y, final int number) {
+        if (trailSize == trail.length) {
+            final int[] larger = new int[trail.length * 2];
+            System.arraycopy(trail, 0, larger, 0, trailSize);
+            trail = larger;
+        }
+        trail[trailSize++] = kind << 12 | x << 8 | y << 4 | number;
+    }
+
     public Cell getCell(final int x, final int y) {
         assert x < 9;
         assert y < 9;
         return cells[x][y];
     }
 
+    /**
+     * Returns a cell of a unit.
+     * 
+     * @param unit the number of the unit, see {@link Units}
+     * @param index the index of the cell in the unit
+     */
+    public Cell getUnitCell(final int unit, final int index) {
+        return cells[Units.getX(unit, index)][Units.getY(unit, index)];
+    }
+
+    /**
+     * Collects the cells of a unit that have each number available.
+     * 
+     * @param unit the number of the unit, see {@link Units}
+     * @return at index n the cells that have number n available, as a bit mask (bit i standing for the cell at index
+     * i). The array belongs to the board and is overwritten by the next call.
+     */
+    public int[] getPositions(final int unit) {
+        for (int number = 1; number <= 9; number++) {
+            positions[number] = 0;
+        }
+        for (int index = 0; index < 9; index++) {
+            for (int mask = getUnitCell(unit, index).getBitMask(); mask != 0; mask &= mask - 1) {
+                positions[Integer.numberOfTrailingZeros(mask) + 1] |= 1 << index;
+            }
+        }
+        return positions;
+    }
+
     public void setSimplifiers(final List<Simplifier> simplifiers) {
         this.simplifiers = simplifiers;
+        if (simplifiers != null && uncheckedUnits.length < simplifiers.size()) {
+            uncheckedUnits = new int[simplifiers.size()];
+        }
     }
 
     public String toString() {
@@ -13,30 +13,35 @@ package com.koch.sudoku.base;
 /**
  * Stores and manages information for an individual cell.
  * 
+ * <p>The available numbers are kept in a bit mask only (bit n - 1 is set iff n is available), so they are counted
+ * with {@link Integer#bitCount(int)} and always listed in increasing order, however they were removed and restored.</p>
+ * 
  * @author George Koch
  */
 public class Cell {
-    private static final int[] BITS = {0, 1, 2, 4, 8, 16, 32, 64, 128, 256};
-    private final int[] availableNumbers;
+    private static final int ALL = 511;
     private int bitMask;
     private int value;
 
     public Cell() {
-        availableNumbers = new int[10];
-        for (int i = 1; i < 10; i++) {
-            availableNumbers[i] = i;
-        }
-        availableNumbers[0] = 9;
         value = 0;
-        bitMask = 511;
+        bitMask = ALL;
     }
 
+    /**
+     * Returns the available number at the specified index, counting from the smallest.
+     */
     public int getAvailableNumber(final int index) {
-        return availableNumbers[index + 1];
+        int mask = bitMask;
+        for (int i = 0; i < index; i++) {
+            // drop the lowest bit
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask) + 1;
     }
 
     public int getAvailableNumberCount() {
-        return availableNumbers[0];
+        return Integer.bitCount(bitMask);
     }
 
     public int getValue() {
@@ -52,32 +57,25 @@ public class Cell {
     }
 
     public boolean set(final int number) {
-        final boolean hasNumber = hasAvailableNumber(number);
-        if (!hasNumber) {
-            availableNumbers[0]++;
-            availableNumbers[availableNumbers[0]] = number;
-            bitMask |= BITS[number];
+        final int bit = 1 << (number - 1);
+        if ((bitMask & bit) != 0) {
+            return false;
         }
-        return !hasNumber;
+        bitMask |= bit;
+        return true;
     }
 
     public boolean clear(final int number) {
-        if (hasAvailableNumber(number)) {
-            bitMask ^= BITS[number];
-            final int count = availableNumbers[0];
-            for (int i = 1; i <= count; i++) {
-                if (availableNumbers[i] == number) {
-                    availableNumbers[i] = availableNumbers[count];
-                    availableNumbers[0]--;
-                    return true;
-                }
-            }
+        final int bit = 1 << (number - 1);
+        if ((bitMask & bit) == 0) {
+            return false;
         }
-        return false;
+        bitMask &= ~bit;
+        return true;
     }
 
     public boolean hasAvailableNumber(final int number) {
-        return (bitMask & BITS[number]) > 0;
+        return (bitMask & 1 << (number - 1)) != 0;
     }
 
     public int getBitMask() {
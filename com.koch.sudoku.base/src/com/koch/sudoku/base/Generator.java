@@ -14,7 +14,8 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
-import java.util.Set;
+
+import org.eclipse.sudoku.core.util.SplitMixRandom;
 
 /**
  * Class for the puzzle generator. It can generate two levels of puzzles.
@@ -24,19 +25,32 @@ import java.util.Set;
  *  <li>hard - starting from an easy board, eliminates the numbers that are not necessary for the uniqueness</li>
  *  </ul>
  *
- *  <p>Not thread safe.</p>
+ *  <p>Generators created with the same seed generate the same puzzles. Not thread safe.</p>
  *  
  * @author George Koch
  */
 public class Generator {
-    private static final Random RND = new Random(System.currentTimeMillis());
+    private final Random random;
     private Board board;
     private final List<Movement> moves;
-    private final List<Set<Movement>> undoMoves;
+    /**
+     * The board's trail mark taken before each step that has not been undone.
+     */
+    private final int[] marks;
+    private int markCount;
 
     public Generator() {
+        this(new SplitMixRandom());
+    }
+
+    public Generator(final long seed) {
+        this(new SplitMixRandom(seed));
+    }
+
+    private Generator(final Random random) {
+        this.random = random;
         moves = new ArrayList<Movement>(81);
-        undoMoves = new ArrayList<Set<Movement>>(81);
+        marks = new int[81];
     }
 
     /**
@@ -46,13 +60,13 @@ public class Generator {
         // start with an empty board.
     	this.board = new Board();
         moves.clear();
-        undoMoves.clear();
+        markCount = 0;
         // the first 17 movement probably won't result unique solution
         for (int i = 0; i < 17; i++) {
             moveOneStep();
         }
         // check if the board is solvable, rollback until it is
-        final Solver solver = new Solver(board);
+        final Solver solver = new Solver(board, random);
         Solver.Solvability solvability = solver.getSolvability();
         while (solvability == Solver.Solvability.NOT_SOLVABLE) {
             undoOneStep();
@@ -82,7 +96,7 @@ public class Generator {
                     }
                 }
                 // check if it still has unique solution
-                final Solver testSolver = new Solver(testBoard);
+                final Solver testSolver = new Solver(testBoard, random);
                 solvability = testSolver.getSolvability();
                 assert solvability != Solver.Solvability.NOT_SOLVABLE;
                 if (solvability == Solver.Solvability.DONE) {
@@ -98,8 +112,7 @@ public class Generator {
      * Undo the last movement.
      */
     private void undoOneStep() {
-        final Set<Movement> undos = undoMoves.remove(undoMoves.size() - 1);
-        board.undo(undos);
+        board.rewind(marks[--markCount]);
     }
 
     /**
@@ -115,15 +128,15 @@ public class Generator {
             if (cell.getValue() == 0) {
                 // yet to fill
                 final int count = cell.getAvailableNumberCount();
-                final int number = cell.getAvailableNumber(RND.nextInt(count));
-                final Movement move = new Movement(x, y, number);
-                final Set<Movement> undos = board.move(move);
+                final int number = cell.getAvailableNumber(random.nextInt(count));
+                final int mark = board.mark();
+                board.move(x, y, number);
                 if (isSolvable()) {
                     found = true;
-                    moves.add(move);
-                    undoMoves.add(undos);
+                    moves.add(new Movement(x, y, number));
+                    marks[markCount++] = mark;
                 } else {
-                    board.undo(undos);
+                    board.rewind(mark);
                 }
             }
         }
@@ -132,7 +145,7 @@ public class Generator {
     private int getRandomCellIndex() {
         final int availableNumberCount = getMaxAvailableNumberCount();
         assert availableNumberCount != 0;
-        int next = RND.nextInt(81);
+        int next = random.nextInt(81);
         for (int i = 0; i < 81; i++, next++) {
             if (next >= 81) {
                 next = 0;
@@ -41,20 +41,4 @@ public class Movement {
     public String toString() {
         return "Movement [x = " + x + ", y = " + y + ", number = " + number + "]";
     }
-
-    public static class NormalMovement extends Movement {
-        public NormalMovement(int x, int y, int number) {
-            super(x, y, number);
-        }
-
-        public NormalMovement(final Movement move) {
-            this(move.x, move.y, move.number);
-        }
-    }
-
-    public static class ClearMovement extends Movement {
-        public ClearMovement(int x, int y, int number) {
-            super(x, y, number);
-        }
-    }
 }
\ No newline at end of file
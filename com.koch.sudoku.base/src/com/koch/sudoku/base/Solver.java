@@ -10,31 +10,36 @@
  *******************************************************************************/
 package com.koch.sudoku.base;
 
+import com.koch.sudoku.simplifiers.BoxLineReductionSimplifier;
 import com.koch.sudoku.simplifiers.BoxSimplifier;
 import com.koch.sudoku.simplifiers.CellSimplifier;
+import com.koch.sudoku.simplifiers.HiddenNSimplifier;
+import com.koch.sudoku.simplifiers.HiddenSinglesSimplifier;
 import com.koch.sudoku.simplifiers.Naked1Simplifier;
-import com.koch.sudoku.simplifiers.NakedNSimplifier;
 import com.koch.sudoku.simplifiers.NakedPairsSimplifier;
+import com.koch.sudoku.simplifiers.PointingSimplifier;
 import com.koch.sudoku.simplifiers.RowAndColumnSimplifier;
 import com.koch.sudoku.simplifiers.Simplifier;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
-import java.util.Set;
+
+import org.eclipse.sudoku.core.util.SplitMixRandom;
 
 /**
  * Backtracking puzzle solver. Can solve a puzzle or tell if the puzzle is solvable/not solvable/has more than one
  * solution.
  * 
+ * <p>Moves are undone by rewinding the board's trail, and the state of each level of the search is kept in arrays
+ * that are allocated with the solver, so searching does not allocate.</p>
+ * 
  * @author George Koch
  */
 public class Solver {
 
-    private static final Random RND = new Random(System.currentTimeMillis());
-
     private static final List<Simplifier> SIMPLIFIERS;
 
     public enum Solvability {HAS_EMPTY_CELLS, DONE, NOT_SOLVABLE, MULTIPLE_SOLUTIONS}
@@ -43,19 +48,39 @@ public class Solver {
     private List<Movement> movements;
     private boolean checkUniqueness;
     private final Board board;
+    private final Random random;
+
+    /**
+     * For each level of the search, the numbers already tried in each cell (bit n for number n, cells indexed
+     * x * 9 + y), and the move made at each level (packed as x << 8 | y << 4 | number).
+     */
+    private final int[][] tried = new int[82][81];
+    private final int[] path = new int[81];
 
     static {
         SIMPLIFIERS = new ArrayList<Simplifier>();
         SIMPLIFIERS.add(new CellSimplifier());
         SIMPLIFIERS.add(new RowAndColumnSimplifier());
         SIMPLIFIERS.add(new BoxSimplifier());
+        // cheapest first, the later ones only check what the earlier ones have left
         SIMPLIFIERS.add(new Naked1Simplifier());
+        SIMPLIFIERS.add(new HiddenSinglesSimplifier());
+        SIMPLIFIERS.add(new PointingSimplifier());
+        SIMPLIFIERS.add(new BoxLineReductionSimplifier());
         SIMPLIFIERS.add(new NakedPairsSimplifier());
-        SIMPLIFIERS.add(new NakedNSimplifier(3, 8));
+        SIMPLIFIERS.add(new HiddenNSimplifier(2, 3));
     }
 
     public Solver(final Board board) {
+        this(board, new SplitMixRandom());
+    }
+
+    /**
+     * Creates a solver that draws its choices from the given random number generator.
+     */
+    public Solver(final Board board, final Random random) {
         this.board = board;
+        this.random = random;
     }
 
     /**
@@ -82,52 +107,58 @@ public class Solver {
         this.checkUniqueness = checkUniqueness;
         movements = new LinkedList<Movement>();
         board.setSimplifiers(SIMPLIFIERS);
-        Solvability result = recursiveSolve();
+        Solvability result = recursiveSolve(0);
         if (result == Solvability.NOT_SOLVABLE && firstSolutionCells != null) {
             result = Solvability.DONE;
         }
         return result;
     }
 
-    private Solvability recursiveSolve() {
+    private Solvability recursiveSolve(final int depth) {
         if (hasIllegalCell()) {
             return Solvability.NOT_SOLVABLE;
         }
         final Solvability solved = isSolved();
         if (solved != Solvability.HAS_EMPTY_CELLS) {
+            if (solved == Solvability.DONE && !checkUniqueness) {
+                // store the moves that led here
+                for (int i = 0; i < depth; i++) {
+                    movements.add(new Movement(path[i] >> 8, path[i] >> 4 & 0xf, path[i] & 0xf));
+                }
+            }
             return solved;
         }
         // so we have empty cells, let's try to fill one
-        final Set<Movement> testedMovements = new HashSet<Movement>();
-        final int[][] testedGrid = new int[9][9];
+        final int[] testedNumbers = tried[depth];
+        Arrays.fill(testedNumbers, 0);
         while (true) {
             // get the next best move
-            final Movement nextMove = nextPossibleMovement(testedMovements, testedGrid);
-            if (nextMove == null) {
+            final int nextMove = nextPossibleMovement(testedNumbers);
+            if (nextMove < 0) {
                 // we've tried all the possible moves
                 return Solvability.NOT_SOLVABLE;
             }
+            final int x = nextMove >> 8;
+            final int y = nextMove >> 4 & 0xf;
+            final int number = nextMove & 0xf;
             // move it
-            final Set<Movement> undoMoves = board.move(nextMove);
-            // store the move
-            movements.add(nextMove);
+            final int mark = board.mark();
+            board.move(x, y, number);
+            path[depth] = nextMove;
             // call recursion
-            final Solvability result = recursiveSolve();
+            final Solvability result = recursiveSolve(depth + 1);
             // undo the move so we'll end up with the original board at the end
-            board.undo(undoMoves);
+            board.rewind(mark);
             if (result != Solvability.NOT_SOLVABLE && (!checkUniqueness || result == Solvability.MULTIPLE_SOLUTIONS))
             {
                 // if we solved and don't need to check uniqueness or found out that multiple solutions exist
                 // then return
                 return result;
             }
-            // remove it from the final movements list
-            movements.remove(nextMove);
             // register as a tested movement
-            testedMovements.add(nextMove);
-            testedGrid[nextMove.x][nextMove.y]++;
-            final Cell cell = board.getCell(nextMove.x, nextMove.y);
-            if (cell.getAvailableNumberCount() == testedGrid[nextMove.x][nextMove.y])
+            testedNumbers[x * 9 + y] |= 1 << number;
+            final Cell cell = board.getCell(x, y);
+            if (cell.getAvailableNumberCount() == Integer.bitCount(testedNumbers[x * 9 + y]))
             {
                 // there are no other numbers to try for this cell
                 return Solvability.NOT_SOLVABLE;
@@ -165,30 +196,31 @@ public class Solver {
         return Solvability.DONE;
     }
 
-    private Movement nextPossibleMovement(final Set<Movement> testedMovements, final int[][] testedGrid) {
-        final Movement testMovement = new Movement(0, 0, 0);
-        final int seed = RND.nextInt(81);
+    /**
+     * Returns the next move to try, packed as x << 8 | y << 4 | number, or -1 if every move has been tried.
+     */
+    private int nextPossibleMovement(final int[] testedNumbers) {
+        final int seed = random.nextInt(81);
         // check in inverse order of possibilities
-        final int minPossibility = minPossibility(testedGrid);
+        final int minPossibility = minPossibility(testedNumbers);
         for (int i = 0; i < 81; i++) {
             final int x = (seed + i) % 81 / 9;
             final int y = (seed + i) % 81 % 9;
             final Cell cell = board.getCell(x, y);
             final int availableNumberCount = cell.getAvailableNumberCount();
-            if (availableNumberCount - testedGrid[x][y] == minPossibility) {
-                testMovement.x = x;
-                testMovement.y = y;
-                final int seedInCell = RND.nextInt(availableNumberCount);
+            final int tested = testedNumbers[x * 9 + y];
+            if (availableNumberCount - Integer.bitCount(tested) == minPossibility) {
+                final int seedInCell = random.nextInt(availableNumberCount);
                 for (int j = 0; j < availableNumberCount; j++) {
                     final int index = (seedInCell + j) % availableNumberCount;
-                    testMovement.number = cell.getAvailableNumber(index);
-                    if (!testedMovements.contains(testMovement)) {
-                        return testMovement;
+                    final int number = cell.getAvailableNumber(index);
+                    if ((tested & 1 << number) == 0) {
+                        return x << 8 | y << 4 | number;
                     }
                 }
             }
         }
-        return null;
+        return -1;
     }
 
     private boolean hasIllegalCell() {
@@ -204,13 +236,13 @@ public class Solver {
         return false;
     }
 
-    public int minPossibility(int[][] testedGrid) {
+    public int minPossibility(int[] testedNumbers) {
         int best = 9;
         for (int i = 0; i < 9; i++) {
             for (int j = 0; j < 9; j++) {
                 final int available;
-                if (testedGrid != null) {
-                    available = board.getCell(i, j).getAvailableNumberCount() - testedGrid[i][j];
+                if (testedNumbers != null) {
+                    available = board.getCell(i, j).getAvailableNumberCount() - Integer.bitCount(testedNumbers[i * 9 + j]);
                 } else {
                     available = board.getCell(i, j).getAvailableNumberCount();
                 }
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2006 George Koch.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    George Koch - initial API and implementation
+ *******************************************************************************/
+package com.koch.sudoku.base;
+
+/**
+ * Precomputed, immutable tables of the units (rows, columns and boxes) of the board. They hold no state, so they can
+ * be used by any number of boards in parallel threads.
+ * 
+ * <p>Units are numbered: rows are 0-8 (by y), columns are 9-17 (by x) and boxes are 18-26 (left to right, then top to
+ * bottom). The cells of a row are indexed by x, the cells of a column by y and the cells of a box left to right, then
+ * top to bottom.</p>
+ * 
+ * @author George Koch
+ */
+public final class Units {
+    /**
+     * Number of units.
+     */
+    public static final int COUNT = 27;
+
+    /**
+     * The number of the first row, column and box.
+     */
+    public static final int ROWS = 0;
+    public static final int COLUMNS = 9;
+    public static final int BOXES = 18;
+
+    /**
+     * The coordinates of the cells of each unit.
+     */
+    private static final int[][] XS = new int[COUNT][9];
+    private static final int[][] YS = new int[COUNT][9];
+
+    /**
+     * The units of each cell as a bit mask, bit u standing for unit u.
+     */
+    private static final int[][] UNITS_OF_CELL = new int[9][9];
+
+    static {
+        for (int unit = 0; unit < 9; unit++) {
+            for (int index = 0; index < 9; index++) {
+                // row
+                XS[ROWS + unit][index] = index;
+                YS[ROWS + unit][index] = unit;
+                // column
+                XS[COLUMNS + unit][index] = unit;
+                YS[COLUMNS + unit][index] = index;
+                // box
+                XS[BOXES + unit][index] = unit % 3 * 3 + index % 3;
+                YS[BOXES + unit][index] = unit / 3 * 3 + index / 3;
+            }
+        }
+        for (int x = 0; x < 9; x++) {
+            for (int y = 0; y < 9; y++) {
+                UNITS_OF_CELL[x][y] = 1 << getRow(y) | 1 << getColumn(x) | 1 << getBox(x, y);
+            }
+        }
+    }
+
+    private Units() {
+        // hide it
+    }
+
+    public static int getRow(final int y) {
+        return ROWS + y;
+    }
+
+    public static int getColumn(final int x) {
+        return COLUMNS + x;
+    }
+
+    public static int getBox(final int x, final int y) {
+        return BOXES + y / 3 * 3 + x / 3;
+    }
+
+    /**
+     * Returns true iff the specified cell belongs to the unit.
+     */
+    public static boolean contains(final int unit, final int x, final int y) {
+        return (UNITS_OF_CELL[x][y] & 1 << unit) != 0;
+    }
+
+    /**
+     * Returns the row, column and box of the specified cell as a bit mask, bit u standing for unit u.
+     */
+    public static int getUnits(final int x, final int y) {
+        return UNITS_OF_CELL[x][y];
+    }
+
+    public static int getX(final int unit, final int index) {
+        return XS[unit][index];
+    }
+
+    public static int getY(final int unit, final int index) {
+        return YS[unit][index];
+    }
+}
\ No newline at end of file
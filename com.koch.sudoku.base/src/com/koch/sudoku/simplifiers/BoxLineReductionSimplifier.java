@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2006 George Koch.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    George Koch - initial API and implementation
+ *******************************************************************************/
+package com.koch.sudoku.simplifiers;
+
+import com.koch.sudoku.base.Board;
+import com.koch.sudoku.base.Movement;
+import com.koch.sudoku.base.Units;
+
+/**
+ * Finds the numbers whose places in a row or column are all in the same box, and eliminates them from the rest of that
+ * box.
+ * 
+ * @author George Koch
+ */
+public class BoxLineReductionSimplifier implements Simplifier {
+    /**
+     * The indices of the cells of a line that are in its first box, as a bit mask.
+     */
+    private static final int FIRST_BOX = 7;
+
+    public BoxLineReductionSimplifier() {
+    }
+
+    public void doIt(Movement move, Board board) {
+        // the changed units are checked
+    }
+
+    public void doIt(final int unit, final Board board) {
+        if (unit >= Units.BOXES) {
+            return;
+        }
+        final int[] places = board.getPositions(unit);
+        for (int number = 1; number <= 9; number++) {
+            final int positions = places[number];
+            if (positions == 0) {
+                continue;
+            }
+            final int first = Integer.numberOfTrailingZeros(positions) / 3 * 3;
+            if ((positions & ~(FIRST_BOX << first)) == 0) {
+                final int box = Units.getBox(Units.getX(unit, first), Units.getY(unit, first));
+                for (int index = 0; index < 9; index++) {
+                    final int x = Units.getX(box, index);
+                    final int y = Units.getY(box, index);
+                    if (!Units.contains(unit, x, y)) {
+                        board.clear(x, y, number);
+                    }
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -13,8 +13,6 @@ package com.koch.sudoku.simplifiers;
 import com.koch.sudoku.base.Board;
 import com.koch.sudoku.base.Movement;
 
-import java.util.Set;
-
 /**
  * Eliminates available numbers from the cells in the same box.
  * 
@@ -24,14 +22,18 @@ public class BoxSimplifier implements Simplifier {
     public BoxSimplifier() {
     }
 
-    public void doIt(final Movement move, final Board board, final Set<Movement> undoMoves) {
+    public void doIt(final Movement move, final Board board) {
         // clear grid
         final int baseX = move.x / 3 * 3;
         final int baseY = move.y / 3 * 3;
         for (int i = 0; i < 3; i++) {
             for (int j = 0; j < 3; j++) {
-                board.clear(baseX + i, baseY + j, move.number, undoMoves);
+                board.clear(baseX + i, baseY + j, move.number);
             }
         }
     }
+
+    public void doIt(final int unit, final Board board) {
+        // only the move matters
+    }
 }
\ No newline at end of file
@@ -13,16 +13,18 @@ package com.koch.sudoku.simplifiers;
 import com.koch.sudoku.base.Board;
 import com.koch.sudoku.base.Movement;
 
-import java.util.Set;
-
 public class CellSimplifier implements Simplifier {
     public CellSimplifier() {
     }
 
-    public void doIt(final Movement move, final Board board, final Set<Movement> undoMoves) {
+    public void doIt(final Movement move, final Board board) {
         // clear available numbers from the same cell
         for (int i = 0; i < 9; i++) {
-            board.clear(move.x, move.y, i + 1, undoMoves);
+            board.clear(move.x, move.y, i + 1);
         }
     }
+
+    public void doIt(final int unit, final Board board) {
+        // only the move matters
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2006 George Koch.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    George Koch - initial API and implementation
+ *******************************************************************************/
+package com.koch.sudoku.simplifiers;
+
+import com.koch.sudoku.base.Board;
+import com.koch.sudoku.base.Movement;
+import com.koch.sudoku.base.Units;
+
+/**
+ * Finds n numbers that are available in only n cells of a unit (hidden pairs, triples, ...), and eliminates the other
+ * available numbers of those cells.
+ * 
+ * <p>A hidden subset of a unit is the complement of a naked subset of its other empty cells, so hidden subsets up to
+ * a size and {@link NakedNSimplifier naked} subsets up to the same size together find every subset of a unit with
+ * at most twice as many empty cells.</p>
+ * 
+ * @author George Koch
+ */
+public class HiddenNSimplifier implements Simplifier {
+    private final int from;
+    private final int to;
+
+    public HiddenNSimplifier(final int from, final int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public void doIt(Movement move, Board board) {
+        // the changed units are checked
+    }
+
+    public void doIt(final int unit, final Board board) {
+        // the places of each number, the ones eliminated meanwhile are rechecked when the unit is next checked
+        final int[] places = board.getPositions(unit);
+        for (int n = from; n <= to; n++) {
+            find(unit, board, places, n, 1, 0, 0);
+        }
+    }
+
+    /**
+     * Extends a set of numbers with numbers from first on, looking for n numbers that have n places in total.
+     * 
+     * @param numbers the numbers chosen so far, bit n - 1 standing for number n
+     * @param positions the places of the chosen numbers in the unit, bit i standing for the cell at index i
+     */
+    private void find(final int unit, final Board board, final int[] places, final int n, final int first,
+                      final int numbers, final int positions) {
+        if (Integer.bitCount(numbers) == n) {
+            if (Integer.bitCount(positions) == n) {
+                removeOthers(unit, board, numbers, positions);
+            }
+            return;
+        }
+        for (int number = first; number <= 9; number++) {
+            final int numberPositions = places[number];
+            // skip the numbers that have a value in the unit (no place) and the ones that have too many places
+            if (numberPositions != 0 && Integer.bitCount(positions | numberPositions) <= n) {
+                find(unit, board, places, n, number + 1, numbers | 1 << number - 1, positions | numberPositions);
+            }
+        }
+    }
+
+    private void removeOthers(final int unit, final Board board, final int numbers, final int positions) {
+        for (int index = 0; index < 9; index++) {
+            if ((positions & 1 << index) != 0) {
+                for (int number = 1; number <= 9; number++) {
+                    if ((numbers & 1 << number - 1) == 0) {
+                        board.clear(Units.getX(unit, index), Units.getY(unit, index), number);
+                    }
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2006 George Koch.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    George Koch - initial API and implementation
+ *******************************************************************************/
+package com.koch.sudoku.simplifiers;
+
+import com.koch.sudoku.base.Board;
+import com.koch.sudoku.base.Cell;
+import com.koch.sudoku.base.Movement;
+import com.koch.sudoku.base.Units;
+
+/**
+ * Finds the numbers that have only one place left in a unit, and eliminates the other available numbers of that
+ * cell. A number that has no place left in a unit (and has no value there) makes the board unsolvable: every empty
+ * cell of the unit is cleared, so that the problem is obvious.
+ * 
+ * @author George Koch
+ */
+public class HiddenSinglesSimplifier implements Simplifier {
+    public HiddenSinglesSimplifier() {
+    }
+
+    public void doIt(Movement move, Board board) {
+        // the changed units are checked
+    }
+
+    public void doIt(final int unit, final Board board) {
+        // collect the numbers that already have a value in the unit
+        int placed = 0;
+        for (int index = 0; index < 9; index++) {
+            final int value = board.getUnitCell(unit, index).getValue();
+            if (value != 0) {
+                placed |= 1 << value - 1;
+            }
+        }
+        final int[] places = board.getPositions(unit);
+        for (int number = 1; number <= 9; number++) {
+            if ((placed & 1 << number - 1) == 0) {
+                final int positions = places[number];
+                if (positions == 0) {
+                    clearUnit(unit, board);
+                    return;
+                }
+                if (Integer.bitCount(positions) == 1) {
+                    final int index = Integer.numberOfTrailingZeros(positions);
+                    final int x = Units.getX(unit, index);
+                    final int y = Units.getY(unit, index);
+                    for (int other = 1; other <= 9; other++) {
+                        if (other != number) {
+                            board.clear(x, y, other);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void clearUnit(final int unit, final Board board) {
+        for (int index = 0; index < 9; index++) {
+            final Cell cell = board.getUnitCell(unit, index);
+            if (cell.getValue() == 0) {
+                for (int number = 1; number <= 9; number++) {
+                    board.clear(Units.getX(unit, index), Units.getY(unit, index), number);
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -13,37 +13,29 @@ package com.koch.sudoku.simplifiers;
 import com.koch.sudoku.base.Board;
 import com.koch.sudoku.base.Cell;
 import com.koch.sudoku.base.Movement;
-import com.koch.sudoku.base.UnitWalker;
-
-import java.util.Set;
+import com.koch.sudoku.base.Units;
 
 public class Naked1Simplifier implements Simplifier {
     public Naked1Simplifier() {
     }
 
-    public void doIt(Movement move, Board board, Set<Movement> undoMoves) {
-        checkUnit(board, UnitWalker.Unit.ROW, undoMoves);
-        checkUnit(board, UnitWalker.Unit.COLUMN, undoMoves);
-        checkUnit(board, UnitWalker.Unit.BOX, undoMoves);
+    public void doIt(Movement move, Board board) {
+        // the changed units are checked
     }
 
-    private void checkUnit(final Board board, final UnitWalker.Unit unit, final Set<Movement> undoMoves) {
-        // for every cell
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                final UnitWalker walker = UnitWalker.getInstance(board, i, j, unit);
-                final int index = walker.getBaseIndex();
-                final Cell cell = board.getCell(i, j);
-                if (cell.getAvailableNumberCount() == 1) {
-                    final int number = cell.getAvailableNumber(0);
-                    for (int k = 0; k < 9; k++) {
-                        if (k != index) {
-                            final Cell other = walker.getCell(k);
-                            if (other.hasAvailableNumber(number)) {
-                                final int x = walker.getX(k);
-                                final int y = walker.getY(k);
-                                board.clear(x, y, number, undoMoves);
-                            }
+    public void doIt(final int unit, final Board board) {
+        // for every cell of the unit
+        for (int index = 0; index < 9; index++) {
+            final Cell cell = board.getUnitCell(unit, index);
+            if (cell.getAvailableNumberCount() == 1) {
+                final int number = cell.getAvailableNumber(0);
+                for (int k = 0; k < 9; k++) {
+                    if (k != index) {
+                        final Cell other = board.getUnitCell(unit, k);
+                        if (other.hasAvailableNumber(number)) {
+                            final int x = Units.getX(unit, k);
+                            final int y = Units.getY(unit, k);
+                            board.clear(x, y, number);
                         }
                     }
                 }
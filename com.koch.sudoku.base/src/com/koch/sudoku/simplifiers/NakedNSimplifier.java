@@ -13,9 +13,7 @@ package com.koch.sudoku.simplifiers;
 import com.koch.sudoku.base.Board;
 import com.koch.sudoku.base.Cell;
 import com.koch.sudoku.base.Movement;
-import com.koch.sudoku.base.UnitWalker;
-
-import java.util.Set;
+import com.koch.sudoku.base.Units;
 
 public class NakedNSimplifier implements Simplifier {
     private final int from;
@@ -26,51 +24,41 @@ public class NakedNSimplifier implements Simplifier {
         this.to = to;
     }
 
-    public void doIt(Movement move, Board board, Set<Movement> undoMoves) {
-        checkUnit(board, UnitWalker.Unit.ROW, undoMoves);
-        checkUnit(board, UnitWalker.Unit.COLUMN, undoMoves);
-        checkUnit(board, UnitWalker.Unit.BOX, undoMoves);
+    public void doIt(Movement move, Board board) {
+        // the changed units are checked
     }
 
-    private void checkUnit(final Board board, final UnitWalker.Unit unit, final Set<Movement> undoMoves) {
+    public void doIt(final int unit, final Board board) {
+        // shared by every n, only the first n elements are used
+        final int[] indices = new int[to];
+        final Cell[] cells = new Cell[to];
         for (int n = from; n <= to; n++) {
-            final int[] indices = new int[n];
-            final Cell[] cells = new Cell[n];
-            // for every cell
-            for (int i = 0; i < 9; i++) {
-                for (int j = 0; j < 9; j++) {
-                    final Cell cell = board.getCell(i, j);
-                    if (isPossibleCell(cell, n)) {
-                        assert board.getCell(i, j).getValue() == 0;
-                        // check the rest of the cell in the same unit
-                        final UnitWalker walker = UnitWalker.getInstance(board, i, j, unit);
-                        final int index = walker.getBaseIndex();
-                        if (index + n > 9) {
-                            // not enough element in the unit
-                            continue;
-                        }
-                        // generate initial vector
-                        boolean overflow = !initialiseVectors(index, indices, walker, cells);
-                        while (!overflow) {
-                            final int bitMask = getBitMaskUnion(cells);
-                            if (bits(bitMask) == cells.length) {
-                                removeValues(bitMask, walker, indices, board, undoMoves);
-                            }
-                            overflow = !incrementVector(walker, cells, indices);
+            // for every cell of the unit (there must be enough cells after it)
+            for (int index = 0; index + n <= 9; index++) {
+                final Cell cell = board.getUnitCell(unit, index);
+                if (isPossibleCell(cell, n)) {
+                    assert cell.getValue() == 0;
+                    // generate initial vector
+                    boolean overflow = !initialiseVectors(index, n, indices, unit, board, cells);
+                    while (!overflow) {
+                        final int bitMask = getBitMaskUnion(cells, n);
+                        if (Integer.bitCount(bitMask) == n) {
+                            removeValues(bitMask, unit, indices, n, board);
                         }
+                        overflow = !incrementVector(unit, board, cells, indices, n);
                     }
                 }
             }
         }
     }
 
-    private boolean initialiseVectors(final int index, final int[] indices, final UnitWalker walker, final Cell[] cells) {
-        final int len = indices.length;
+    private boolean initialiseVectors(final int index, final int len, final int[] indices, final int unit,
+                                      final Board board, final Cell[] cells) {
         int nextToTry = index;
         for (int i = 0; i < len; i++) {
             boolean found = false;
             while (nextToTry <= 8) {
-                final Cell cell = walker.getCell(nextToTry);
+                final Cell cell = board.getUnitCell(unit, nextToTry);
                 if (isPossibleCell(cell, len)) {
                     indices[i] = nextToTry;
                     cells[i] = cell;
@@ -91,53 +79,43 @@ public class NakedNSimplifier implements Simplifier {
         return true;
     }
 
-    private int getBitMaskUnion(final Cell[] cells) {
-        assert cells.length > 1;
+    private int getBitMaskUnion(final Cell[] cells, final int length) {
+        assert length > 1;
         // TODO: optimize it (based on the fact that the naked (N-1)'s are solved)
         int bitMask = 0;
-        for (Cell cell : cells) {
-            bitMask |= cell.getBitMask();
+        for (int i = 0; i < length; i++) {
+            bitMask |= cells[i].getBitMask();
         }
         return bitMask;
     }
 
-    private int bits(int bitMask) {
-        int bits = 0;
-        while (bitMask != 0) {
-            bits += bitMask & 1;
-            bitMask >>= 1;
-        }
-        return bits;
-    }
-
-    private void removeValues(final int bitMask, final UnitWalker walker, final int[] indices,
-                              final Board board, final Set<Movement> undoMoves) {
+    private void removeValues(final int bitMask, final int unit, final int[] indices, final int length,
+                              final Board board) {
         int pos = 0;
         for (int i = 0; i < 9; i++) {
-            if (pos < indices.length && i == indices[pos]) {
+            if (pos < length && i == indices[pos]) {
                 // this number is among the indices
                 pos++;
             } else {
                 // this number is not among the indices
-                final int x = walker.getX(i);
-                final int y = walker.getY(i);
-                removeNumbers(bitMask, board, x, y, undoMoves);
+                final int x = Units.getX(unit, i);
+                final int y = Units.getY(unit, i);
+                removeNumbers(bitMask, board, x, y);
             }
         }
     }
 
-    private void removeNumbers(int bitMask, final Board board, final int x, final int y,
-                               final Set<Movement> undoMoves) {
+    private void removeNumbers(int bitMask, final Board board, final int x, final int y) {
         for (int i = 1; bitMask != 0; i++) {
             if ((bitMask & 1) == 1) {
-                board.clear(x, y, i, undoMoves);
+                board.clear(x, y, i);
             }
             bitMask >>= 1;
         }
     }
 
-    private boolean incrementVector(final UnitWalker walker, final Cell[] cells, final int[] indices) {
-        final int length = indices.length;
+    private boolean incrementVector(final int unit, final Board board, final Cell[] cells, final int[] indices,
+                                    final int length) {
         int positionToIncrement = length - 1;
         boolean found = false;
         boolean overflow = false;
@@ -158,7 +136,7 @@ public class NakedNSimplifier implements Simplifier {
                             indices[j] = indices[j - 1] + 1;
                             assert indices[j] < 9;
                         }
-                        cells[j] = walker.getCell(indices[j]);
+                        cells[j] = board.getUnitCell(unit, indices[j]);
                         if (!isPossibleCell(cells[j], length)) {
                             if (found) {
                                 positionToIncrement = i;
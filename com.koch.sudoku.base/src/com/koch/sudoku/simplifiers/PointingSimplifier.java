@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2006 George Koch.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    George Koch - initial API and implementation
+ *******************************************************************************/
+package com.koch.sudoku.simplifiers;
+
+import com.koch.sudoku.base.Board;
+import com.koch.sudoku.base.Movement;
+import com.koch.sudoku.base.Units;
+
+/**
+ * Finds the numbers whose places in a box are all in the same row or column (pointing pairs and triples), and
+ * eliminates them from the rest of that row or column.
+ * 
+ * @author George Koch
+ */
+public class PointingSimplifier implements Simplifier {
+    /**
+     * The indices of the first row and of the first column of a box, as bit masks.
+     */
+    private static final int FIRST_ROW = 7;
+    private static final int FIRST_COLUMN = 1 | 1 << 3 | 1 << 6;
+
+    public PointingSimplifier() {
+    }
+
+    public void doIt(Movement move, Board board) {
+        // the changed units are checked
+    }
+
+    public void doIt(final int unit, final Board board) {
+        if (unit < Units.BOXES) {
+            return;
+        }
+        final int[] places = board.getPositions(unit);
+        for (int number = 1; number <= 9; number++) {
+            final int positions = places[number];
+            if (positions == 0) {
+                continue;
+            }
+            final int index = Integer.numberOfTrailingZeros(positions);
+            final int x = Units.getX(unit, index);
+            final int y = Units.getY(unit, index);
+            if ((positions & ~(FIRST_ROW << index / 3 * 3)) == 0) {
+                clearOutside(Units.getRow(y), unit, number, board);
+            }
+            if ((positions & ~(FIRST_COLUMN << index % 3)) == 0) {
+                clearOutside(Units.getColumn(x), unit, number, board);
+            }
+        }
+    }
+
+    /**
+     * Eliminates the number from the cells of the line that are not in the box.
+     */
+    private void clearOutside(final int line, final int box, final int number, final Board board) {
+        for (int index = 0; index < 9; index++) {
+            final int x = Units.getX(line, index);
+            final int y = Units.getY(line, index);
+            if (!Units.contains(box, x, y)) {
+                board.clear(x, y, number);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -13,17 +13,19 @@ package com.koch.sudoku.simplifiers;
 import com.koch.sudoku.base.Board;
 import com.koch.sudoku.base.Movement;
 
-import java.util.Set;
-
 public class RowAndColumnSimplifier implements Simplifier {
     public RowAndColumnSimplifier() {
     }
 
-    public void doIt(final Movement move, final Board board, final Set<Movement> undoMoves) {
+    public void doIt(final Movement move, final Board board) {
         // clear row and column
         for (int i = 0; i < 9; i++) {
-            board.clear(move.x, i, move.number, undoMoves);
-            board.clear(i, move.y, move.number, undoMoves);
+            board.clear(move.x, i, move.number);
+            board.clear(i, move.y, move.number);
         }
     }
+
+    public void doIt(final int unit, final Board board) {
+        // only the move matters
+    }
 }
\ No newline at end of file
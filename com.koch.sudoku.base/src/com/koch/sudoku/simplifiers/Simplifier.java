@@ -13,11 +13,19 @@ package com.koch.sudoku.simplifiers;
 import com.koch.sudoku.base.Board;
 import com.koch.sudoku.base.Movement;
 
-import java.util.Set;
-
 /**
+ * Eliminates available numbers from the board. The board calls {@link #doIt(Movement, Board)} once after each move,
+ * then {@link #doIt(int, Board)} for each unit whose cells lost available numbers, until no unit is left to check.
+ * 
  * @author George Koch
  */
 public interface Simplifier {
-    void doIt(Movement move, Board board, Set<Movement> undoMoves);
+    void doIt(Movement move, Board board);
+
+    /**
+     * Checks a unit whose cells have changed since it was last checked.
+     * 
+     * @param unit the number of the unit, see {@link com.koch.sudoku.base.Units}
+     */
+    void doIt(int unit, Board board);
 }
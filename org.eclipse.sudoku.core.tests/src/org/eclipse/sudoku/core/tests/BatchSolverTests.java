@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.tests;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
+import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.solvers.BatchSolver;
+import org.eclipse.sudoku.core.solvers.SudokuBoardSolver;
+import org.eclipse.sudoku.core.solvers.SudokuBoardSolverProvider;
+
+public class BatchSolverTests extends TestCase {
+	static final String SOLUTION = "693784512487512936125963874932651487568247391741398625319475268856129743274836159";
+
+	final AtomicInteger created = new AtomicInteger();
+
+	/*
+	 * A solver that knows only one solution, which is enough to exercise
+	 * the batch machinery.
+	 */
+	final SudokuBoardSolverProvider provider = new SudokuBoardSolverProvider() {
+		public SudokuBoardSolver createSolver() {
+			created.incrementAndGet();
+			return new SudokuBoardSolver() {
+				public void solve(SudokuBoard board, IProgressMonitor monitor) throws CannotSolveSudokuBoardException {
+					for (Cell cell : board.getCells()) {
+						int value = SOLUTION.charAt(cell.row * 9 + cell.column) - '0';
+						if (cell.isEmpty()) cell.setValue(value);
+						else if (cell.getValue() != value) throw new CannotSolveSudokuBoardException();
+					}
+				}
+
+				public int countSolutions(SudokuBoard board, int limit) {
+					return 1;
+				}
+
+				public boolean isUnique(SudokuBoard board) {
+					return true;
+				}
+			};
+		}
+	};
+
+	BatchSolver solver = new BatchSolver(provider, 4);
+
+	@Override
+	protected void tearDown() throws Exception {
+		solver.shutdown();
+	}
+
+	public void testOrderedResults() throws Exception {
+		List<SudokuBoard> boards = createBoards(50);
+		Iterator<BatchSolver.Result> results = solver.solve(boards.iterator(), true, null);
+		for (int index = 0; index < 50; index++) {
+			assertTrue(results.hasNext());
+			BatchSolver.Result result = results.next();
+			assertEquals(index, result.getIndex());
+			assertSame(boards.get(index), result.getBoard());
+			assertTrue(result.isSolved());
+			assertNull(result.getException());
+			assertTrue(result.getSolution().isComplete());
+			assertFalse(result.getBoard().isComplete());
+		}
+		assertFalse(results.hasNext());
+		assertTrue(created.get() <= 4);
+	}
+
+	public void testCompletionOrderResults() throws Exception {
+		Iterator<BatchSolver.Result> results = solver.solve(createBoards(50).iterator(), false, null);
+		Set<Integer> indexes = new HashSet<Integer>();
+		while (results.hasNext()) {
+			BatchSolver.Result result = results.next();
+			assertTrue(result.isSolved());
+			indexes.add(result.getIndex());
+		}
+		assertEquals(50, indexes.size());
+	}
+
+	public void testUnsolvableBoard() throws Exception {
+		List<SudokuBoard> boards = createBoards(2);
+		boards.get(1).setValue(0, 0, 1);
+		Iterator<BatchSolver.Result> results = solver.solve(boards.iterator(), true, null);
+		assertTrue(results.next().isSolved());
+		BatchSolver.Result result = results.next();
+		assertFalse(result.isSolved());
+		assertTrue(result.getException() instanceof CannotSolveSudokuBoardException);
+		assertEquals(1, boards.get(1).getValue(0, 0));
+	}
+
+	public void testCancelled() throws Exception {
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		assertFalse(solver.solve(createBoards(10).iterator(), true, monitor).hasNext());
+	}
+
+	/*
+	 * Answers boards that each have a different cell of the solution
+	 * cleared (as well as the first cell).
+	 */
+	private List<SudokuBoard> createBoards(int count) {
+		List<SudokuBoard> boards = new ArrayList<SudokuBoard>();
+		for (int board = 0; board < count; board++) {
+			SudokuBoard sudokuBoard = new SudokuBoard();
+			for (int index = 0; index < 81; index++) {
+				if (index == 0 || index == board % 81) continue;
+				sudokuBoard.setValue(index / 9, index % 9, SOLUTION.charAt(index) - '0');
+			}
+			boards.add(sudokuBoard);
+		}
+		return boards;
+	}
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.sudoku.core.models.PackedSudokuBoard;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+
+public class PackedSudokuBoardTests extends TestCase {
+	SudokuBoard board = new SudokuBoard(new int[][] {
+			{0,6,0, 1,0,4, 0,5,0},
+			{0,0,8, 3,0,5, 6,0,0},
+			{2,0,0, 0,0,0, 0,0,1},
+
+			{8,0,0, 4,0,7, 0,0,6},
+			{0,0,6, 0,0,0, 3,0,0},
+			{7,0,0, 9,0,1, 0,0,4},
+
+			{5,0,0, 0,0,0, 0,0,2},
+			{0,0,7, 2,0,6, 9,0,0},
+			{0,4,0, 5,0,8, 0,7,0}
+	});
+
+	public void testConversion() throws Exception {
+		board.setValue(0, 0, 3);
+		PackedSudokuBoard packed = new PackedSudokuBoard(board);
+		assertEquals(3, packed.getValue(0, 0));
+		assertFalse(packed.isGiven(0, 0));
+		assertEquals(6, packed.getValue(0, 1));
+		assertTrue(packed.isGiven(0, 1));
+
+		SudokuBoard copy = packed.toSudokuBoard();
+		assertEquals(board, copy);
+		assertTrue(copy.getCell(0, 1).isGiven());
+		assertFalse(copy.getCell(0, 0).isGiven());
+	}
+
+	public void testGivenCellsCannotChange() throws Exception {
+		PackedSudokuBoard packed = new PackedSudokuBoard(board);
+		packed.setValue(0, 1, 9);
+		assertEquals(6, packed.getValue(0, 1));
+		packed.setValue(0, 0, 9);
+		packed.clear();
+		assertTrue(packed.isEmpty(0, 0));
+		assertEquals(6, packed.getValue(0, 1));
+	}
+
+	public void testCopyIsIndependent() throws Exception {
+		PackedSudokuBoard packed = new PackedSudokuBoard(board);
+		PackedSudokuBoard copy = packed.copy();
+		assertEquals(packed, copy);
+		copy.setValue(0, 0, 3);
+		assertTrue(packed.isEmpty(0, 0));
+		assertFalse(packed.equals(copy));
+	}
+
+	public void testViews() throws Exception {
+		PackedSudokuBoard packed = new PackedSudokuBoard(board);
+		assertEquals(6, packed.getRow(0).getValue(1));
+		assertEquals(8, packed.getColumn(0).getValue(3));
+		assertEquals(8, packed.getBoxContainingCell(1, 1).getValue(5));
+		assertEquals(board.getCandidateMask(0, 0), packed.getCandidateMask(0, 0));
+		assertTrue(packed.isValid());
+		packed.getCell(0, 0).setValue(6);
+		assertFalse(packed.getRow(0).isValid());
+		assertFalse(packed.isValid());
+	}
+
+	public void testCandidateMasks() throws Exception {
+		board.setValue(0, 0, 3);
+		PackedSudokuBoard packed = new PackedSudokuBoard(board);
+		for (int row = 0; row < 9; row++) {
+			for (int column = 0; column < 9; column++) {
+				assertEquals(board.getCandidateMask(row, column), packed.getCandidateMask(row, column));
+			}
+		}
+	}
+}
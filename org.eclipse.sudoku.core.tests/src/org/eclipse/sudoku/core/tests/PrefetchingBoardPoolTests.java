@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.tests;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.sudoku.core.exceptions.CannotCreateSudokuBoardException;
+import org.eclipse.sudoku.core.factories.PrefetchingBoardPool;
+import org.eclipse.sudoku.core.factories.SudokuBoardSource;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+
+public class PrefetchingBoardPoolTests extends TestCase {
+	final AtomicInteger created = new AtomicInteger();
+
+	/*
+	 * A source that answers a board with the key in its first cell.
+	 */
+	final SudokuBoardSource<Integer> source = new SudokuBoardSource<Integer>() {
+		public SudokuBoard createBoard(Integer key) throws CannotCreateSudokuBoardException {
+			if (key.intValue() == 0) throw new CannotCreateSudokuBoardException();
+			created.incrementAndGet();
+			SudokuBoard board = new SudokuBoard();
+			board.setValue(0, 0, key.intValue());
+			return board;
+		}
+	};
+
+	PrefetchingBoardPool<Integer> pool;
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (pool != null) pool.shutdown();
+	}
+
+	public void testPrefetchFillsQueue() throws Exception {
+		pool = new PrefetchingBoardPool<Integer>(source, "Test", 3, 2);
+		pool.prefetch(1);
+		waitForAvailable(1, 3);
+		assertEquals(0, pool.getAvailable(2));
+		assertEquals(3, created.get());
+	}
+
+	public void testTakeAnswersBoardForKey() throws Exception {
+		pool = new PrefetchingBoardPool<Integer>(source, "Test", 2, 1);
+		assertEquals(5, pool.take(5).getValue(0, 0));
+		waitForAvailable(5, 2);
+		assertEquals(5, pool.take(5).getValue(0, 0));
+		assertEquals(7, pool.take(7).getValue(0, 0));
+		waitForAvailable(5, 2);
+		waitForAvailable(7, 2);
+	}
+
+	public void testTakeDoesNotCreateWhenAvailable() throws Exception {
+		pool = new PrefetchingBoardPool<Integer>(source, "Test", 2, 1);
+		pool.prefetch(1);
+		waitForAvailable(1, 2);
+		pool.shutdown();
+		pool.take(1);
+		pool.take(1);
+		assertEquals(2, created.get());
+		pool.take(1);
+		assertEquals(3, created.get());
+	}
+
+	public void testSizeZeroCreatesOnCallingThread() throws Exception {
+		pool = new PrefetchingBoardPool<Integer>(source, "Test", 0, 1);
+		pool.prefetch(1);
+		assertEquals(0, pool.getAvailable(1));
+		assertEquals(1, pool.take(1).getValue(0, 0));
+		assertEquals(1, created.get());
+	}
+
+	public void testFailureIsReportedToCaller() throws Exception {
+		pool = new PrefetchingBoardPool<Integer>(source, "Test", 2, 1);
+		try {
+			pool.take(0);
+			fail();
+		} catch (CannotCreateSudokuBoardException e) {
+			// Expected.
+		}
+	}
+
+	private void waitForAvailable(int key, int count) throws InterruptedException {
+		for (int attempt = 0; attempt < 500 && pool.getAvailable(key) < count; attempt++) {
+			Thread.sleep(10);
+		}
+		assertEquals(count, pool.getAvailable(key));
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.solvers.SolverTrace;
+
+public class SolverTraceTests extends TestCase {
+	public void testPacking() throws Exception {
+		SolverTrace trace = new SolverTrace();
+		trace.place(8, 7, 9);
+		trace.remove(3, 4);
+
+		assertEquals(2, trace.size());
+		int step = trace.get(0);
+		assertEquals(SolverTrace.PLACE, SolverTrace.getType(step));
+		assertEquals(8, SolverTrace.getRow(step));
+		assertEquals(7, SolverTrace.getColumn(step));
+		assertEquals(9, SolverTrace.getValue(step));
+
+		step = trace.get(1);
+		assertEquals(SolverTrace.REMOVE, SolverTrace.getType(step));
+		assertEquals(3, SolverTrace.getRow(step));
+		assertEquals(4, SolverTrace.getColumn(step));
+		assertEquals(0, SolverTrace.getValue(step));
+	}
+
+	public void testGrows() throws Exception {
+		SolverTrace trace = new SolverTrace();
+		for (int index = 0; index < 10000; index++) {
+			trace.place(index % 9, (index / 9) % 9, index % 9 + 1);
+		}
+		assertEquals(10000, trace.size());
+		assertEquals(9999 % 9 + 1, SolverTrace.getValue(trace.get(9999)));
+	}
+
+	public void testReplay() throws Exception {
+		SudokuBoard board = new SudokuBoard();
+		board.setValue(0, 0, 5);
+		SolverTrace trace = new SolverTrace(board);
+		trace.place(0, 1, 3);
+		trace.remove(0, 1);
+		trace.place(0, 1, 4);
+
+		board.setValue(0, 0, 0);
+		trace.reset(board);
+		assertEquals(5, board.getValue(0, 0));
+		trace.apply(board, 0);
+		assertEquals(3, board.getValue(0, 1));
+		trace.apply(board, 1);
+		assertEquals(0, board.getValue(0, 1));
+		trace.apply(board, 2);
+		assertEquals(4, board.getValue(0, 1));
+	}
+
+	public void testReadWrite() throws Exception {
+		SudokuBoard board = new SudokuBoard();
+		board.setValue(4, 4, 7);
+		SolverTrace trace = new SolverTrace(board);
+		trace.place(1, 2, 3);
+		trace.remove(1, 2);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		trace.write(output);
+		assertEquals(4 + 81 + 4 + 2 * 4, output.size());
+
+		SolverTrace read = SolverTrace.read(new ByteArrayInputStream(output.toByteArray()));
+		assertEquals(7, read.getStartValue(4, 4));
+		assertEquals(0, read.getStartValue(0, 0));
+		assertEquals(2, read.size());
+		assertEquals(trace.get(0), read.get(0));
+		assertEquals(trace.get(1), read.get(1));
+	}
+
+	public void testReadRejectsInvalidSize() throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new SolverTrace().write(output);
+		byte[] bytes = output.toByteArray();
+
+		// a negative count
+		bytes[85] = (byte) 0x80;
+		try {
+			SolverTrace.read(new ByteArrayInputStream(bytes));
+			fail();
+		} catch (IOException e) {
+		}
+
+		// a huge count with no steps behind it
+		bytes[85] = (byte) 0x7f;
+		try {
+			SolverTrace.read(new ByteArrayInputStream(bytes));
+			fail();
+		} catch (IOException e) {
+		}
+	}
+}
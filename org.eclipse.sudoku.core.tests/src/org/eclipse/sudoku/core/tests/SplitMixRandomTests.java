@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.tests;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.eclipse.sudoku.core.util.SplitMixRandom;
+
+public class SplitMixRandomTests extends TestCase {
+	public void testSameSeedSameSequence() {
+		SplitMixRandom first = new SplitMixRandom(42);
+		SplitMixRandom second = new SplitMixRandom(42);
+		for (int index = 0; index < 1000; index++) {
+			assertEquals(first.nextLong(), second.nextLong());
+			assertEquals(first.nextInt(81), second.nextInt(81));
+		}
+	}
+
+	public void testSetSeedRestartsSequence() {
+		SplitMixRandom random = new SplitMixRandom(7);
+		long first = random.nextLong();
+		random.nextLong();
+		random.setSeed(7);
+		assertEquals(first, random.nextLong());
+	}
+
+	public void testUnseededInstancesDiffer() {
+		assertFalse(new SplitMixRandom().nextLong() == new SplitMixRandom().nextLong());
+	}
+
+	public void testNextIntIsInRange() {
+		SplitMixRandom random = new SplitMixRandom(1);
+		int[] counts = new int[9];
+		for (int index = 0; index < 9000; index++) {
+			counts[random.nextInt(9)]++;
+		}
+		for (int count : counts) {
+			assertTrue(count > 800 && count < 1200);
+		}
+	}
+
+	public void testDerivedSeedsAreDistinct() {
+		Set<Long> seeds = new HashSet<Long>();
+		for (long index = 0; index < 10000; index++) {
+			assertTrue(seeds.add(SplitMixRandom.getSeed(42, index)));
+		}
+		assertFalse(SplitMixRandom.getSeed(42, 0) == SplitMixRandom.getSeed(43, 0));
+	}
+
+	public void testSplitIsReproducible() {
+		SplitMixRandom first = new SplitMixRandom(42).split();
+		SplitMixRandom second = new SplitMixRandom(42).split();
+		assertEquals(first.nextLong(), second.nextLong());
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.sudoku.core.models.PackedSudokuBoard;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.models.SudokuBoardCanonicalizer;
+
+public class SudokuBoardCanonicalizerTests extends TestCase {
+	int[][] puzzle = new int[][] {
+			{0,6,0, 1,0,4, 0,5,0},
+			{0,0,8, 3,0,5, 6,0,0},
+			{2,0,0, 0,0,0, 0,0,1},
+
+			{8,0,0, 4,0,7, 0,0,6},
+			{0,0,6, 0,0,0, 3,0,0},
+			{7,0,0, 9,0,1, 0,0,4},
+
+			{5,0,0, 0,0,0, 0,0,2},
+			{0,0,7, 2,0,6, 9,0,0},
+			{0,4,0, 5,0,8, 0,7,0}
+	};
+
+	SudokuBoardCanonicalizer canonicalizer = new SudokuBoardCanonicalizer();
+
+	public void testEquivalentPuzzlesHaveSameForm() throws Exception {
+		String canonical = canonicalizer.canonicalize(new SudokuBoard(puzzle));
+		assertEquals(81, canonical.length());
+
+		int[] digits = new int[] {0, 3, 7, 1, 9, 2, 8, 5, 4, 6};
+		int[] rows = new int[] {7, 6, 8, 1, 2, 0, 4, 3, 5};
+		int[] columns = new int[] {5, 3, 4, 0, 2, 1, 8, 6, 7};
+		int[][] equivalent = new int[9][9];
+		for (int row = 0; row < 9; row++) {
+			for (int column = 0; column < 9; column++) {
+				equivalent[column][row] = digits[puzzle[rows[row]][columns[column]]];
+			}
+		}
+		SudokuBoard board = new SudokuBoard(equivalent);
+		assertEquals(canonical, canonicalizer.canonicalize(board));
+		assertEquals(canonicalizer.getCanonicalFingerprint(new SudokuBoard(puzzle)), canonicalizer.getCanonicalFingerprint(board));
+	}
+
+	public void testCanonicalFormIsCanonical() throws Exception {
+		PackedSudokuBoard canonical = canonicalizer.getCanonicalBoard(new SudokuBoard(puzzle));
+		assertEquals(canonicalizer.canonicalize(new SudokuBoard(puzzle)), canonicalizer.canonicalize(canonical));
+		assertTrue(canonical.isValid());
+	}
+
+	public void testOnlyGivenCellsAreConsidered() throws Exception {
+		SudokuBoard board = new SudokuBoard(puzzle);
+		String canonical = canonicalizer.canonicalize(board);
+		board.setValue(0, 0, 3);
+		assertEquals(canonical, canonicalizer.canonicalize(board));
+	}
+
+	public void testSparsePuzzles() throws Exception {
+		StringBuilder empty = new StringBuilder();
+		for (int index = 0; index < 81; index++) {
+			empty.append('0');
+		}
+		int[][] values = new int[9][9];
+		assertEquals(empty.toString(), canonicalizer.canonicalize(new SudokuBoard(values)));
+
+		values[4][2] = 7;
+		empty.setCharAt(80, '1');
+		assertEquals(empty.toString(), canonicalizer.canonicalize(new SudokuBoard(values)));
+	}
+
+	public void testDifferentPuzzlesHaveDifferentForms() throws Exception {
+		String canonical = canonicalizer.canonicalize(new SudokuBoard(puzzle));
+		puzzle[4][4] = 5;
+		assertFalse(canonical.equals(canonicalizer.canonicalize(new SudokuBoard(puzzle))));
+	}
+}
@@ -10,13 +10,21 @@
  *******************************************************************************/
 package org.eclipse.sudoku.core.tests;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import junit.framework.TestCase;
 
+import org.eclipse.sudoku.core.listeners.SudokuBoardStateAdapter;
+import org.eclipse.sudoku.core.models.BoardFingerprint;
 import org.eclipse.sudoku.core.models.Box;
+import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.models.CellChange;
 import org.eclipse.sudoku.core.models.Column;
+import org.eclipse.sudoku.core.models.PackedSudokuBoard;
 import org.eclipse.sudoku.core.models.Row;
 import org.eclipse.sudoku.core.models.SudokuBoard;
 
@@ -233,4 +241,232 @@ public class SudokuBoardTests extends TestCase {
 		board.setValue(0,3, 7);
 		assertEquals(7, board.getValue(0,3));
 	}
+
+	public void testCandidateMaskOfEmptyBoard() throws Exception {
+		SudokuBoard board = new SudokuBoard();
+		assertEquals(SudokuBoard.ALL_VALUES_MASK, board.getCandidateMask(4, 4));
+		assertEquals(9, board.getCandidateCount(4, 4));
+	}
+
+	public void testCandidateMask() throws Exception {
+		SudokuBoard board = new SudokuBoard();
+		board.setValue(0, 8, 1);
+		board.setValue(8, 0, 2);
+		board.setValue(1, 1, 3);
+		board.setValue(4, 4, 4);
+		assertEquals(0x1f8, board.getCandidateMask(0, 0));
+		assertEquals(6, board.getCandidateCount(0, 0));
+		assertEquals(6, board.getCell(0, 0).getPossibleValues().size());
+	}
+
+	public void testCandidateMaskAfterClear() throws Exception {
+		SudokuBoard board = new SudokuBoard();
+		board.setValue(0, 1, 4);
+		board.setValue(0, 2, 4);
+		board.getCell(0, 1).clear();
+		assertEquals(0x1f7, board.getCandidateMask(0, 0));
+		board.getCell(0, 2).clear();
+		assertEquals(SudokuBoard.ALL_VALUES_MASK, board.getCandidateMask(0, 0));
+	}
+
+	public void testValidAfterConflictCleared() throws Exception {
+		SudokuBoard board = new SudokuBoard();
+		board.setValue(0, 0, 4);
+		board.setValue(0, 1, 4);
+		board.setValue(1, 1, 4);
+		assertFalse(board.isValid());
+		assertFalse(board.getCell(2, 2).isValid());
+		board.getCell(0, 1).clear();
+		assertFalse(board.isValid());
+		board.setValue(1, 1, 5);
+		assertTrue(board.isValid());
+		assertTrue(board.getCell(2, 2).isValid());
+		assertEquals(0, board.getInvalidBoxes().size());
+	}
+
+	public void testCopyConstructor() throws Exception {
+		SudokuBoard board = new SudokuBoard(new int[][] {
+				{ 4, 0, 0, 0, 0, 0, 0, 0, 0 }, 
+				{ 0, 0, 0, 0, 0, 0, 0, 0, 0 },
+				{ 0, 0, 0, 0, 0, 0, 0, 0, 0 }, 
+				{ 0, 0, 0, 0, 0, 0, 0, 0, 0 },
+				{ 0, 0, 0, 0, 0, 0, 0, 0, 0 }, 
+				{ 0, 0, 0, 0, 0, 0, 0, 0, 0 },
+				{ 0, 0, 0, 0, 0, 0, 0, 0, 0 }, 
+				{ 0, 0, 0, 0, 0, 0, 0, 0, 0 },
+				{ 0, 0, 0, 0, 0, 0, 0, 0, 0 } 
+			});
+		board.setValue(0, 1, 4);
+		SudokuBoard copy = new SudokuBoard(board);
+		assertEquals(board, copy);
+		assertTrue(copy.getCell(0, 0).isGiven());
+		assertFalse(copy.getCell(0, 1).isGiven());
+		assertFalse(copy.isValid());
+		
+		copy.getCell(0, 1).clear();
+		assertTrue(copy.isValid());
+		assertEquals(4, board.getValue(0, 1));
+	}
+
+	public void testSnapshotAndRestore() throws Exception {
+		final int[] events = new int[2];
+		SudokuBoard board = new SudokuBoard();
+		board.setValue(2, 2, 7);
+		PackedSudokuBoard snapshot = board.snapshot();
+		board.addSudokuBoardStateListener(new SudokuBoardStateAdapter() {
+			private static final long serialVersionUID = 1L;
+			
+			public void cellChanged(SudokuBoard board, Cell cell, int newValue, int oldValue) {
+				events[0]++;
+			}
+			
+			public void boardRestored(SudokuBoard board) {
+				events[1]++;
+			}
+		});
+		board.setValue(2, 2, 1);
+		board.setValue(3, 3, 1);
+		board.restore(snapshot);
+		assertEquals(7, board.getValue(2, 2));
+		assertTrue(board.getCell(3, 3).isEmpty());
+		assertEquals(0x1bf, board.getCandidateMask(2, 0));
+		assertEquals(2, events[0]);
+		assertEquals(1, events[1]);
+	}
+	public void testHashCodeConsistentWithEquals() throws Exception {
+		SudokuBoard board = new SudokuBoard();
+		board.setValue(4, 4, 5);
+		SudokuBoard other = new SudokuBoard();
+		assertFalse(board.equals(other));
+		other.setValue(4, 4, 5);
+		assertEquals(board, other);
+		assertEquals(board.hashCode(), other.hashCode());
+		assertEquals(board.getFingerprint(), other.getFingerprint());
+
+		Set<SudokuBoard> boards = new HashSet<SudokuBoard>();
+		boards.add(board);
+		assertTrue(boards.contains(other));
+	}
+
+	public void testFingerprintTracksChanges() throws Exception {
+		SudokuBoard board = new SudokuBoard();
+		BoardFingerprint empty = board.getFingerprint();
+		assertEquals("00000000000000000000000000000000", empty.toString());
+		board.setValue(0, 0, 1);
+		BoardFingerprint one = board.getFingerprint();
+		assertFalse(empty.equals(one));
+		board.setValue(0, 0, 2);
+		assertFalse(one.equals(board.getFingerprint()));
+		board.getCell(0, 0).clear();
+		assertEquals(empty, board.getFingerprint());
+
+		board.setValue(3, 7, 9);
+		PackedSudokuBoard packed = board.snapshot();
+		assertEquals(board.getFingerprint(), packed.getFingerprint());
+		assertEquals(board.hashCode(), packed.hashCode());
+		board.setValue(3, 7, 8);
+		board.restore(packed);
+		assertEquals(packed.getFingerprint(), board.getFingerprint());
+		assertEquals(board.getFingerprint(), new SudokuBoard(board).getFingerprint());
+	}
+
+	public void testBatchCoalescesNotifications() throws Exception {
+		final List<List<CellChange>> batches = new ArrayList<List<CellChange>>();
+		final int[] cellEvents = new int[1];
+		final SudokuBoard board = new SudokuBoard();
+		board.setValue(0, 0, 1);
+		board.addSudokuBoardStateListener(new SudokuBoardStateAdapter() {
+			private static final long serialVersionUID = 1L;
+
+			public void cellChanged(SudokuBoard board, Cell cell, int newValue, int oldValue) {
+				cellEvents[0]++;
+			}
+
+			public void cellsChanged(SudokuBoard board, List<CellChange> changes) {
+				batches.add(changes);
+			}
+		});
+		board.beginBatch();
+		board.setValue(0, 0, 2);
+		board.setValue(0, 0, 3);
+		board.runBatch(new Runnable() {
+			public void run() {
+				board.setValue(4, 4, 5);
+			}
+		});
+		board.setValue(8, 8, 9);
+		board.getCell(8, 8).clear();
+		board.endBatch();
+
+		assertEquals(0, cellEvents[0]);
+		assertEquals(1, batches.size());
+		List<CellChange> changes = batches.get(0);
+		assertEquals(2, changes.size());
+		assertSame(board.getCell(0, 0), changes.get(0).cell);
+		assertEquals(1, changes.get(0).oldValue);
+		assertEquals(3, changes.get(0).newValue);
+		assertEquals(0, changes.get(1).oldValue);
+		assertEquals(5, changes.get(1).newValue);
+
+		board.setValue(0, 0, 4);
+		assertEquals(1, cellEvents[0]);
+		assertFalse(board.isBatching());
+	}
+
+	public void testClearSendsSingleNotification() throws Exception {
+		final int[] events = new int[2];
+		SudokuBoard board = new SudokuBoard();
+		board.setValue(0, 0, 1);
+		board.setValue(5, 5, 2);
+		board.addSudokuBoardStateListener(new SudokuBoardStateAdapter() {
+			private static final long serialVersionUID = 1L;
+
+			public void boardChanged(SudokuBoard board) {
+				events[0]++;
+			}
+
+			public void boardCleared(SudokuBoard board) {
+				events[1]++;
+			}
+		});
+		board.clear();
+		assertTrue(board.getCell(0, 0).isEmpty());
+		assertTrue(board.getCell(5, 5).isEmpty());
+		assertEquals(0, events[0]);
+		assertEquals(1, events[1]);
+	}
+
+	public void testSetValueReportsOldValue() throws Exception {
+		final int[] values = new int[2];
+		SudokuBoard board = new SudokuBoard();
+		board.setValue(3, 3, 7);
+		board.addSudokuBoardStateListener(new SudokuBoardStateAdapter() {
+			private static final long serialVersionUID = 1L;
+
+			public void cellChanged(SudokuBoard board, Cell cell, int newValue, int oldValue) {
+				values[0] = newValue;
+				values[1] = oldValue;
+			}
+		});
+		board.setValue(3, 3, 8);
+		assertEquals(8, values[0]);
+		assertEquals(7, values[1]);
+	}
+
+	public void testRemoveListener() throws Exception {
+		final int[] events = new int[1];
+		SudokuBoard board = new SudokuBoard();
+		SudokuBoardStateAdapter listener = new SudokuBoardStateAdapter() {
+			private static final long serialVersionUID = 1L;
+
+			public void boardChanged(SudokuBoard board) {
+				events[0]++;
+			}
+		};
+		board.addSudokuBoardStateListener(listener);
+		board.setValue(0, 0, 1);
+		board.removeSudokuBoardStateListener(listener);
+		board.setValue(0, 0, 2);
+		assertEquals(1, events[0]);
+	}
 }
@@ -57,6 +57,7 @@ public class SudokuCoreActivator extends Plugin {
 
 		getPluginPreferences().setValue(STORED_BOARD, game.getBoardStateStorage());
 		savePluginPreferences();
+		game.dispose();
 	}
 
 	/**
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.factories;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.sudoku.core.exceptions.CannotCreateSudokuBoardException;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+
+/**
+ * This class keeps a bounded queue of boards for each key (e.g. each
+ * difficulty) that is asked for, and refills the queues on background
+ * daemon threads. A factory that is backed by a pool answers a board from
+ * the queue immediately; only when the queue is empty (e.g. the first time
+ * a key is asked for) is a board created on the calling thread.
+ * <p>
+ * By default, the number of boards kept for each key and the number of
+ * threads that refill the queues are taken from the
+ * {@value #SIZE_PROPERTY} and {@value #THREADS_PROPERTY} system
+ * properties. A size of 0 turns prefetching off.
+ * <p>
+ * The threads run until {@link #shutdown()} is called. A factory should
+ * therefore keep its pool in a static field and share it between its
+ * instances, rather than create a pool for each instance.
+ */
+public class PrefetchingBoardPool<K> {
+	public static final String SIZE_PROPERTY = "org.eclipse.sudoku.core.pool.size";
+	public static final String THREADS_PROPERTY = "org.eclipse.sudoku.core.pool.threads";
+
+	private static final int DEFAULT_SIZE = 4;
+	private static final int DEFAULT_THREADS = 1;
+
+	private final SudokuBoardSource<K> source;
+	private final int size;
+	private final ExecutorService executor;
+	private final Map<K, Queue> queues = new HashMap<K, Queue>();
+	private volatile boolean shutdown;
+
+	/*
+	 * The boards available for a key, and the number being created. Access
+	 * to the count is synchronized on the instance.
+	 */
+	private class Queue {
+		final BlockingQueue<SudokuBoard> boards = new LinkedBlockingQueue<SudokuBoard>();
+		int pending;
+	}
+
+	/**
+	 * This constructor creates a pool that is sized and threaded according
+	 * to the system properties.
+	 */
+	public PrefetchingBoardPool(SudokuBoardSource<K> source, String name) {
+		this(source, name, Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE).intValue(), Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS).intValue());
+	}
+
+	/**
+	 * This constructor creates a pool that keeps up to <code>size</code>
+	 * boards for each key, created by up to <code>threads</code> daemon
+	 * threads whose names start with <code>name</code>.
+	 */
+	public PrefetchingBoardPool(SudokuBoardSource<K> source, String name, int size, int threads) {
+		this.source = source;
+		this.size = Math.max(0, size);
+		this.executor = this.size == 0 ? null : createExecutor(name, threads);
+	}
+
+	private static ExecutorService createExecutor(final String name, int threads) {
+		return Executors.newFixedThreadPool(Math.max(1, threads), new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, name + " " + count.incrementAndGet());
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * This method answers a board for the key, taken from the queue if one
+	 * is available and created on the calling thread otherwise. Either way,
+	 * the queue is topped up in the background.
+	 */
+	public SudokuBoard take(K key) throws CannotCreateSudokuBoardException {
+		SudokuBoard board = null;
+		Queue queue = getQueue(key);
+		if (queue != null) {
+			board = queue.boards.poll();
+			refill(key, queue);
+		}
+		if (board == null) board = source.createBoard(key);
+		return board;
+	}
+
+	/**
+	 * This method starts filling the queue for the key in the background,
+	 * so that the first board asked for does not have to wait.
+	 */
+	public void prefetch(K key) {
+		Queue queue = getQueue(key);
+		if (queue != null) refill(key, queue);
+	}
+
+	/**
+	 * This method answers the number of boards waiting in the queue for the
+	 * key.
+	 */
+	public int getAvailable(K key) {
+		Queue queue = getQueue(key);
+		return queue == null ? 0 : queue.boards.size();
+	}
+
+	/**
+	 * This method stops the background threads. Boards can still be taken,
+	 * but they are created on the calling thread once the queues run dry.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		if (executor != null) executor.shutdownNow();
+	}
+
+	private Queue getQueue(K key) {
+		if (size == 0) return null;
+		synchronized (queues) {
+			Queue queue = queues.get(key);
+			if (queue == null) {
+				queue = new Queue();
+				queues.put(key, queue);
+			}
+			return queue;
+		}
+	}
+
+	private void refill(final K key, final Queue queue) {
+		synchronized (queue) {
+			while (!shutdown && queue.boards.size() + queue.pending < size) {
+				try {
+					executor.execute(new Runnable() {
+						public void run() {
+							SudokuBoard board = null;
+							try {
+								board = source.createBoard(key);
+							} catch (CannotCreateSudokuBoardException e) {
+								// Ignore. The next board is created on the calling thread.
+							} finally {
+								// Queue the board and stop counting it as pending
+								// in one step, so that it is never counted twice.
+								synchronized (queue) {
+									if (board != null) queue.boards.offer(board);
+									queue.pending--;
+								}
+							}
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					return;
+				}
+				queue.pending++;
+			}
+		}
+	}
+}
@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.factories;
+
+import org.eclipse.sudoku.core.exceptions.CannotCreateSudokuBoardException;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+
+/**
+ * Factories that implement this interface can create a board from a seed;
+ * the same seed always answers the same board. To create a reproducible
+ * series of boards from a single seed, use
+ * {@link org.eclipse.sudoku.core.util.SplitMixRandom#getSeed(long, long)}
+ * to derive the seed of each board from the series' seed and the board's
+ * number.
+ */
+public interface SeedableSudokuBoardFactory extends SudokuBoardFactory {
+
+	SudokuBoard createNewBoard(long seed) throws CannotCreateSudokuBoardException;
+
+}
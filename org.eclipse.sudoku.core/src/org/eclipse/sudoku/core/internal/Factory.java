@@ -4,18 +4,30 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.sudoku.core.exceptions.CannotCreateSudokuBoardException;
 import org.eclipse.sudoku.core.exceptions.SudokuBoardFactoryUnavailableException;
+import org.eclipse.sudoku.core.factories.SeedableSudokuBoardFactory;
 import org.eclipse.sudoku.core.factories.SudokuBoardFactory;
 import org.eclipse.sudoku.core.models.SudokuBoard;
 
+/**
+ * Instances of this class describe a contribution to the
+ * <code>org.eclipse.sudoku.core.factory</code> extension point. The factory
+ * class is instantiated when it is first needed and then reused: a single
+ * instance is shared if the contribution is marked <code>threadSafe</code>,
+ * otherwise each thread gets its own instance.
+ */
 public class Factory {
 
 	private final String name;
 	private final IConfigurationElement element;
+	private final boolean threadSafe;
+
+	private SudokuBoardFactory sharedFactory;
+	private final ThreadLocal<SudokuBoardFactory> factories = new ThreadLocal<SudokuBoardFactory>();
 
 	public Factory(String name, IConfigurationElement element) {
 		this.name = name;
-		// TODO Auto-generated constructor stub
 		this.element = element;
+		this.threadSafe = "true".equals(element.getAttribute("threadSafe"));
 	}
 
 	public String getName() {
@@ -26,7 +38,40 @@ public class Factory {
 		return getFactory().createNewBoard();
 	}
 	
+	/**
+	 * This method answers the board that the factory creates from the seed.
+	 * 
+	 * @throws CannotCreateSudokuBoardException
+	 *             if the factory cannot create boards from a seed (see
+	 *             {@link SeedableSudokuBoardFactory}).
+	 */
+	public SudokuBoard createNewBoard(long seed) throws SudokuBoardFactoryUnavailableException, CannotCreateSudokuBoardException {
+		SudokuBoardFactory factory = getFactory();
+		if (!(factory instanceof SeedableSudokuBoardFactory)) throw new CannotCreateSudokuBoardException();
+		return ((SeedableSudokuBoardFactory) factory).createNewBoard(seed);
+	}
+
+	public boolean isThreadSafe() {
+		return threadSafe;
+	}
+
 	protected SudokuBoardFactory getFactory() throws SudokuBoardFactoryUnavailableException {
+		if (!element.isValid()) throw new SudokuBoardFactoryUnavailableException();
+		if (threadSafe) {
+			synchronized (this) {
+				if (sharedFactory == null) sharedFactory = createFactory();
+				return sharedFactory;
+			}
+		}
+		SudokuBoardFactory factory = factories.get();
+		if (factory == null) {
+			factory = createFactory();
+			factories.set(factory);
+		}
+		return factory;
+	}
+
+	private SudokuBoardFactory createFactory() throws SudokuBoardFactoryUnavailableException {
 		try {
 			Object object = element.createExecutableExtension("class");
 			if (object instanceof SudokuBoardFactory) {
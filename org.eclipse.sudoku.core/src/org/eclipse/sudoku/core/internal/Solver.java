@@ -15,29 +15,167 @@ import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
 import org.eclipse.sudoku.core.exceptions.SudokuBoardSolverUnavailableException;
+import org.eclipse.sudoku.core.listeners.SolverProgressListener;
+import org.eclipse.sudoku.core.listeners.SudokuBoardStateAdapter;
+import org.eclipse.sudoku.core.models.Cell;
 import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.solvers.SolverTrace;
 import org.eclipse.sudoku.core.solvers.SudokuBoardSolver;
+import org.eclipse.sudoku.core.solvers.SudokuBoardSolverProvider;
+import org.eclipse.sudoku.core.solvers.TraceableSudokuBoardSolver;
 
-public class Solver {
+/**
+ * Instances of this class describe a contribution to the
+ * <code>org.eclipse.sudoku.core.solver</code> extension point. The solver
+ * class is instantiated when it is first needed and then reused: a single
+ * instance is shared if the contribution is marked <code>threadSafe</code>,
+ * otherwise each thread gets its own instance.
+ */
+public class Solver implements SudokuBoardSolverProvider {
 
 	private final String name;
 	private final IConfigurationElement element;
+	private final boolean threadSafe;
+
+	private SudokuBoardSolver sharedSolver;
+	private final ThreadLocal<SudokuBoardSolver> solvers = new ThreadLocal<SudokuBoardSolver>();
 
 	public Solver(String name, IConfigurationElement element) {
 		this.name = name;
 		this.element = element;
+		this.threadSafe = "true".equals(element.getAttribute("threadSafe"));
 	}
 
 	public String getName() {
 		return name;
 	}
 
+	public boolean isThreadSafe() {
+		return threadSafe;
+	}
+
+	/**
+	 * This method solves the board. The solver works on a detached copy of
+	 * the board that has no listeners, so the cost of solving does not
+	 * depend on what is listening to the board. When the solver is done,
+	 * the solution is copied back into the board in a single batch (see
+	 * {@link SudokuBoard#beginBatch()}). If the solver fails or the monitor
+	 * is cancelled, the board is left unchanged.
+	 */
 	public void solve(SudokuBoard board, IProgressMonitor monitor) throws SudokuBoardSolverUnavailableException, CannotSolveSudokuBoardException {
+		solve(board, monitor, null, 0);
+	}
+
+	/**
+	 * This method solves the board as {@link #solve(SudokuBoard, IProgressMonitor)}
+	 * does, additionally sending the state of the working copy to the
+	 * provided listener no more than once every <code>interval</code>
+	 * milliseconds.
+	 */
+	public void solve(final SudokuBoard board, IProgressMonitor monitor, final SolverProgressListener listener, final long interval) throws SudokuBoardSolverUnavailableException, CannotSolveSudokuBoardException {
 		if (!board.isValid()) throw new CannotSolveSudokuBoardException();
-		getSolver().solve(board, monitor);
+		SudokuBoardSolver solver = getSolver();
+		final SudokuBoard workingCopy = new SudokuBoard(board);
+		if (listener != null) {
+			workingCopy.addSudokuBoardStateListener(new SudokuBoardStateAdapter() {
+				private static final long serialVersionUID = 1L;
+				private long last = 0;
+
+				public void boardChanged(SudokuBoard changed) {
+					long now = System.currentTimeMillis();
+					if (now - last < interval) return;
+					last = now;
+					listener.progress(board, workingCopy.snapshot());
+				}
+			});
+		}
+		solver.solve(workingCopy, monitor);
+		if (monitor.isCanceled()) return;
+		publish(workingCopy, board);
+	}
+
+	/**
+	 * This method solves a copy of the board and answers a trace of the
+	 * steps that the solver took; the board itself is not changed. Solvers
+	 * that implement {@link TraceableSudokuBoardSolver} record every value
+	 * that they try, including the ones that they back out of. For other
+	 * solvers, the values that they set on the board are recorded.
+	 */
+	public SolverTrace trace(SudokuBoard board, IProgressMonitor monitor) throws SudokuBoardSolverUnavailableException, CannotSolveSudokuBoardException {
+		if (!board.isValid()) throw new CannotSolveSudokuBoardException();
+		SudokuBoardSolver solver = getSolver();
+		SudokuBoard workingCopy = new SudokuBoard(board);
+		final SolverTrace trace = new SolverTrace(workingCopy);
+		if (solver instanceof TraceableSudokuBoardSolver) {
+			((TraceableSudokuBoardSolver) solver).solve(workingCopy, monitor, trace);
+		} else {
+			workingCopy.addSudokuBoardStateListener(new SudokuBoardStateAdapter() {
+				private static final long serialVersionUID = 1L;
+
+				public void cellChanged(SudokuBoard changed, Cell cell, int newValue, int oldValue) {
+					if (newValue == 0) trace.remove(cell.row, cell.column);
+					else trace.place(cell.row, cell.column, newValue);
+				}
+			});
+			solver.solve(workingCopy, monitor);
+		}
+		return trace;
+	}
+
+	private void publish(SudokuBoard solution, SudokuBoard board) {
+		board.beginBatch();
+		try {
+			for (Cell cell : board.getCells()) {
+				int value = solution.getValue(cell.row, cell.column);
+				if (cell.getValue() != value) cell.setValue(value);
+			}
+		} finally {
+			board.endBatch();
+		}
+	}
+
+	/**
+	 * This method counts the solutions of the board, stopping once
+	 * <code>limit</code> have been found. The board is not changed.
+	 * 
+	 * @see SudokuBoardSolver#countSolutions(SudokuBoard, int)
+	 */
+	public int countSolutions(SudokuBoard board, int limit) throws SudokuBoardSolverUnavailableException {
+		if (!board.isValid()) return 0;
+		return getSolver().countSolutions(board, limit);
+	}
+
+	/**
+	 * This method answers whether the board has exactly one solution.
+	 * 
+	 * @see SudokuBoardSolver#isUnique(SudokuBoard)
+	 */
+	public boolean isUnique(SudokuBoard board) throws SudokuBoardSolverUnavailableException {
+		if (!board.isValid()) return false;
+		return getSolver().isUnique(board);
 	}
 
 	private SudokuBoardSolver getSolver() throws SudokuBoardSolverUnavailableException {
+		if (!element.isValid()) throw new SudokuBoardSolverUnavailableException();
+		if (threadSafe) {
+			synchronized (this) {
+				if (sharedSolver == null) sharedSolver = createSolver();
+				return sharedSolver;
+			}
+		}
+		SudokuBoardSolver solver = solvers.get();
+		if (solver == null) {
+			solver = createSolver();
+			solvers.set(solver);
+		}
+		return solver;
+	}
+
+	/**
+	 * This method answers a new instance of the solver. Most clients should
+	 * use the methods of this class instead, which reuse instances.
+	 */
+	public SudokuBoardSolver createSolver() throws SudokuBoardSolverUnavailableException {
 		Object object;
 		try {
 			object = element.createExecutableExtension("class");
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.listeners;
+
+import org.eclipse.sudoku.core.models.PackedSudokuBoard;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+
+/**
+ * Implementors of this interface can be passed to
+ * {@link org.eclipse.sudoku.core.internal.Solver#solve(SudokuBoard, org.eclipse.core.runtime.IProgressMonitor, SolverProgressListener, long)}
+ * to watch a solver's progress (e.g. to animate it). Notifications are
+ * throttled and are sent on the thread that is running the solver.
+ */
+public interface SolverProgressListener {
+
+	/**
+	 * This method is called periodically while a board is being solved.
+	 *
+	 * @param board
+	 *            the {@link SudokuBoard} being solved. The board does not
+	 *            change until the solver is done.
+	 * @param state
+	 *            a copy of the solver's working state.
+	 */
+	void progress(SudokuBoard board, PackedSudokuBoard state);
+
+}
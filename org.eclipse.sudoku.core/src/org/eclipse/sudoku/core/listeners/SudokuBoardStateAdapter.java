@@ -1,6 +1,9 @@
 package org.eclipse.sudoku.core.listeners;
 
+import java.util.List;
+
 import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.models.CellChange;
 import org.eclipse.sudoku.core.models.SudokuBoard;
 
 public abstract class SudokuBoardStateAdapter implements SudokuBoardStateListener {
@@ -13,6 +16,14 @@ public abstract class SudokuBoardStateAdapter implements SudokuBoardStateListene
 		boardChanged(board);
 	}
 
+	public void cellsChanged(SudokuBoard board, List<CellChange> changes) {
+		boardChanged(board);
+	}
+
+	public void boardRestored(SudokuBoard board) {
+		boardChanged(board);
+	}
+
 	public void cellChanged(SudokuBoard board, Cell cell) {
 		boardChanged(board);
 	}
@@ -11,8 +11,10 @@
 package org.eclipse.sudoku.core.listeners;
 
 import java.io.Serializable;
+import java.util.List;
 
 import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.models.CellChange;
 import org.eclipse.sudoku.core.models.SudokuBoard;
 
 public interface SudokuBoardStateListener extends Serializable {
@@ -31,13 +33,38 @@ public interface SudokuBoardStateListener extends Serializable {
 	public void cellChanged(SudokuBoard board, Cell cell, int newValue, int oldValue);
 
 	/**
-	 * This method is called when the board is cleared
+	 * This method is called once when a batch of changes ends (see
+	 * {@link SudokuBoard#beginBatch()}), in place of the individual cell
+	 * notifications that would otherwise have been sent during the batch.
+	 * When this method is called, the state has already changed.
+	 * 
+	 * @param board
+	 *            the {@link SudokuBoard} that owns the changed cells.
+	 * @param changes
+	 *            the net change to each affected cell, in the order that
+	 *            the cells were first changed.
+	 */
+	public void cellsChanged(SudokuBoard board, List<CellChange> changes);
+
+	/**
+	 * This method is called when the board is cleared. No individual cell
+	 * change notifications are sent in this case.
 	 * 
 	 * @param board
 	 *            the {@link SudokuBoard} that was cleared.
 	 */
 	public void boardCleared(SudokuBoard board);
 
+	/**
+	 * This method is called when the values of the board's cells are
+	 * replaced in bulk (e.g. by {@link SudokuBoard#restore(org.eclipse.sudoku.core.models.PackedSudokuBoard)}).
+	 * No individual cell change notifications are sent in this case.
+	 * 
+	 * @param board
+	 *            the {@link SudokuBoard} that was restored.
+	 */
+	public void boardRestored(SudokuBoard board);
+
 	/**
 	 * This method is called if a property (other than the value) of the cell
 	 * changes. When this method is called, the state has already changed.
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.models;
+
+import java.io.Serializable;
+
+/**
+ * A 128-bit fingerprint of the values on a Sudoku board, suitable for use
+ * as a key in deduplication indexes and caches. Two boards with the same
+ * values (see {@link SudokuBoard#equals(Object)}) always have the same
+ * fingerprint; boards with different values have different fingerprints
+ * with overwhelming probability. Given-ness is not considered.
+ * <p>
+ * The fingerprint is the exclusive-or of a fixed random key for each
+ * (cell, value) pair on the board (Zobrist hashing), so it can be updated
+ * in constant time when a single cell changes. The keys are generated from
+ * a fixed seed, which makes fingerprints stable across runs and can be
+ * persisted.
+ * <p>
+ * Instances are immutable.
+ */
+public final class BoardFingerprint implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * Keys for each (cell, value) pair, indexed by
+	 * (row * 9 + column) * 9 + (value - 1).
+	 */
+	private static final long[] HIGH_KEYS = new long[81 * 9];
+	private static final long[] LOW_KEYS = new long[81 * 9];
+
+	static {
+		long seed = 0x5eed5eed5eed5eedL;
+		for (int index = 0; index < HIGH_KEYS.length; index++) {
+			seed += 0x9e3779b97f4a7c15L;
+			HIGH_KEYS[index] = mix(seed);
+			seed += 0x9e3779b97f4a7c15L;
+			LOW_KEYS[index] = mix(seed);
+		}
+	}
+
+	/*
+	 * The SplitMix64 finalizer.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	static long getHighKey(int row, int column, int value) {
+		return HIGH_KEYS[(row * 9 + column) * 9 + value - 1];
+	}
+
+	static long getLowKey(int row, int column, int value) {
+		return LOW_KEYS[(row * 9 + column) * 9 + value - 1];
+	}
+
+	private final long high;
+	private final long low;
+
+	public BoardFingerprint(long high, long low) {
+		this.high = high;
+		this.low = low;
+	}
+
+	public long getHigh() {
+		return high;
+	}
+
+	public long getLow() {
+		return low;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof BoardFingerprint)) return false;
+		BoardFingerprint other = (BoardFingerprint) object;
+		return high == other.high && low == other.low;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (low ^ (low >>> 32));
+	}
+
+	/**
+	 * This method answers the fingerprint as 32 hexadecimal digits.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(32);
+		appendHex(builder, high);
+		appendHex(builder, low);
+		return builder.toString();
+	}
+
+	private static void appendHex(StringBuilder builder, long value) {
+		String hex = Long.toHexString(value);
+		for (int index = hex.length(); index < 16; index++) {
+			builder.append('0');
+		}
+		builder.append(hex);
+	}
+}
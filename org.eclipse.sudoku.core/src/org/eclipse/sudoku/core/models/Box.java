@@ -64,21 +64,12 @@ public class Box {
 	/**
 	 * This method answers true if the box is valid. A box is considered valid
 	 * if all the values in it's cells are unique (i.e. no cell values are
-	 * repeated). An incomplete box can be valid.
+	 * repeated). An incomplete box can be valid. This is a constant time
+	 * operation.
 	 * 
 	 * @return true if the box is valid, false otherwise.
 	 */
 	public boolean isValid() {
-		boolean[] values = new boolean[10];
-		for (int column = startColumn; column <= endColumn; column++) {
-			for (int row = startRow; row <= endRow; row++) {
-				Cell cell = board.getCell(row, column);
-				if (cell.isEmpty()) continue;
-				int value = cell.getValue();
-				if (values[value]) return false;
-				values[value] = true;
-			}
-		}
-		return true;
+		return board.isBoxValid(startRow, startColumn);
 	}
 }
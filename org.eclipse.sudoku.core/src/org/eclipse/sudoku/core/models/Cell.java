@@ -33,13 +33,13 @@ public class Cell implements Serializable {
 		private static final long serialVersionUID = -4803892363760279625L;
 
 		public void setValue(Cell cell, int value) {
-			cell.value = value;
+			cell.changeValue(value);
 		}
 
 		@Override
 		public void clear(Cell cell) {
 			int oldValue = cell.value;
-			cell.value = 0;
+			cell.changeValue(0);
 			cell.board.notifyCellChanged(cell, 0, oldValue);
 		}
 	};
@@ -84,39 +84,61 @@ public class Cell implements Serializable {
 	}
 
 	public void setValue(int value) {
-		int oldValue = value;
+		int oldValue = this.value;
 		strategy.setValue(this, value);	
 		board.notifyCellChanged(this, value, oldValue);
 	}
 
+	private void changeValue(int value) {
+		int oldValue = this.value;
+		this.value = value;
+		board.cellValueChanged(this, oldValue);
+	}
+
+	/**
+	 * This method replaces the state of the cell without notifying
+	 * anybody. The owning board is responsible for updating itself.
+	 */
+	void load(int value, boolean given) {
+		this.value = value;
+		this.strategy = given ? givenStrategy : changeableStrategy;
+	}
+
 	/**
 	 * This method returns all the possible values for this cell
 	 * based on the current state of the board. 
 	 * 
 	 * @return a {@link List} containing possible Integer values 
 	 * for this cell.
+	 * @see #getCandidateMask()
 	 */
 	public List<Integer> getPossibleValues() {
-		List<Integer> values = new ArrayList<Integer>();
-		for(int index=1;index<10;index++) values.add(index);
-		
-		values.removeAll(getRow().getValues());
-		values.removeAll(getColumn().getValues());
-		values.removeAll(getBox().getValues());
-		
+		int candidates = getCandidateMask();
+		List<Integer> values = new ArrayList<Integer>(Integer.bitCount(candidates));
+		for (int value = 1; value < 10; value++) {
+			if ((candidates & (1 << (value - 1))) != 0) values.add(value);
+		}
 		return values;
 	}
 
-	private Box getBox() {
-		return board.getBoxContainingCell(row, column);
-	}
-
-	private Column getColumn() {
-		return board.getColumn(column);
+	/**
+	 * This method returns the possible values for this cell based on the
+	 * current state of the board, encoded as a bit mask (bit
+	 * <code>value - 1</code> is set if <code>value</code> is possible).
+	 * Unlike {@link #getPossibleValues()}, this method does not allocate.
+	 * 
+	 * @see SudokuBoard#getCandidateMask(int, int)
+	 */
+	public int getCandidateMask() {
+		return board.getCandidateMask(row, column);
 	}
 
-	private Row getRow() {
-		return board.getRow(row);
+	/**
+	 * This method returns the number of possible values for this cell based
+	 * on the current state of the board.
+	 */
+	public int getCandidateCount() {
+		return board.getCandidateCount(row, column);
 	}
 
 	public boolean isEmpty() {
@@ -155,17 +177,12 @@ public class Cell implements Serializable {
 	 * Answers whether or not the receiver is valid. A cell is
 	 * considered valid if the row, column, and box it occurs
 	 * in are all valid (i.e. if any one of them is invalid, so 
-	 * is the cell).
-	 * 
-	 * TODO This implementation is grossly inefficient. Profile and tune.
+	 * is the cell). This is a constant time operation.
 	 * 
 	 * @return true if the cell is valid, false otherwise.
 	 */
 	public boolean isValid() {
-		if (!getRow().isValid()) return false;
-		if (!getColumn().isValid()) return false;
-		if (!getBox().isValid()) return false;
-		return true;
+		return board.isCellValid(row, column);
 	}
 
 	/**
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.models;
+
+/**
+ * Instances of this class describe the net change to a single cell over
+ * the course of a batch (see {@link SudokuBoard#beginBatch()}). If the
+ * cell changed more than once, only its value at the start of the batch and
+ * its value at the end are recorded. A change in which the old and new
+ * values are the same records a change to some other property of the cell
+ * (e.g. {@link Cell#mark()}).
+ */
+public class CellChange {
+	public final Cell cell;
+	public final int oldValue;
+	public final int newValue;
+
+	public CellChange(Cell cell, int oldValue, int newValue) {
+		this.cell = cell;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+
+	public boolean isValueChanged() {
+		return oldValue != newValue;
+	}
+
+	@Override
+	public String toString() {
+		return "(" + cell.row + "," + cell.column + ") " + oldValue + " -> " + newValue;
+	}
+}
@@ -46,19 +46,12 @@ public class Column {
 	/**
 	 * This method answers true if the column is valid. A column is considered valid
 	 * if all the values in it's cells are unique (i.e. no cell values are
-	 * repeated). An incomplete column can be valid.
+	 * repeated). An incomplete column can be valid. This is a constant time
+	 * operation.
 	 * 
 	 * @return true if the column is valid, false otherwise.
 	 */
 	public boolean isValid() {
-		boolean[] values = new boolean[10];
-		for (int row = 0; row < 9; row++) {
-			Cell cell = board.getCell(row, column);
-			if (cell.isEmpty()) continue;
-			int value = cell.getValue();
-			if (values[value]) return false;
-			values[value] = true;
-		}
-		return true;
+		return board.isColumnValid(column);
 	}
 }
@@ -0,0 +1,369 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.models;
+
+import java.util.Arrays;
+
+/**
+ * A compact representation of a Sudoku board intended for bulk work
+ * (generating, grading and storing large numbers of puzzles). The values
+ * are stored in a single <code>byte[81]</code> in row-major order (i.e. the
+ * cell at <code>(row, column)</code> lives at index <code>row * 9 + column</code>)
+ * and the given cells are recorded in an 81-bit set. Copying a board is a
+ * pair of array copies.
+ * <p>
+ * Rows, columns, boxes and cells are exposed through lightweight views
+ * ({@link Unit} and {@link PackedCell}) that read and write the underlying
+ * arrays directly. Unlike {@link SudokuBoard}, instances do not notify
+ * listeners and do not maintain any derived state.
+ * <p>
+ * Instances are not thread safe.
+ */
+public class PackedSudokuBoard {
+
+	/**
+	 * The indices of the cells in each of the 27 units; rows are units
+	 * 0-8, columns are units 9-17, and boxes are units 18-26.
+	 */
+	static final int[][] UNITS = new int[27][9];
+
+	static {
+		for (int unit = 0; unit < 9; unit++) {
+			for (int index = 0; index < 9; index++) {
+				UNITS[unit][index] = unit * 9 + index;
+				UNITS[9 + unit][index] = index * 9 + unit;
+				int row = (unit / 3) * 3 + index / 3;
+				int column = (unit % 3) * 3 + index % 3;
+				UNITS[18 + unit][index] = row * 9 + column;
+			}
+		}
+	}
+
+	private final byte[] values;
+	private final long[] givens;
+
+	/**
+	 * This constructor creates an empty board.
+	 */
+	public PackedSudokuBoard() {
+		this(new byte[81], new long[2]);
+	}
+
+	/**
+	 * This constructor creates a copy of the provided board.
+	 */
+	public PackedSudokuBoard(PackedSudokuBoard board) {
+		this(board.values.clone(), board.givens.clone());
+	}
+
+	/**
+	 * This constructor creates a compact copy of the values and given cells
+	 * of the provided {@link SudokuBoard}.
+	 */
+	public PackedSudokuBoard(SudokuBoard board) {
+		this();
+		for (int row = 0; row < 9; row++) {
+			for (int column = 0; column < 9; column++) {
+				Cell cell = board.getCell(row, column);
+				int index = row * 9 + column;
+				values[index] = (byte) cell.getValue();
+				if (cell.isGiven()) setGiven(index);
+			}
+		}
+	}
+
+	private PackedSudokuBoard(byte[] values, long[] givens) {
+		this.values = values;
+		this.givens = givens;
+	}
+
+	public int getValue(int row, int column) {
+		return values[row * 9 + column];
+	}
+
+	public int getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * This method sets the value of the cell at the given position. As
+	 * with {@link Cell#setValue(int)}, requests to change a given cell are
+	 * ignored.
+	 */
+	public void setValue(int row, int column, int value) {
+		setValue(row * 9 + column, value);
+	}
+
+	public void setValue(int index, int value) {
+		if (isGiven(index)) return;
+		values[index] = (byte) value;
+	}
+
+	public boolean isEmpty(int row, int column) {
+		return values[row * 9 + column] == 0;
+	}
+
+	public boolean isGiven(int row, int column) {
+		return isGiven(row * 9 + column);
+	}
+
+	public boolean isGiven(int index) {
+		return (givens[index >> 6] & (1L << (index & 63))) != 0;
+	}
+
+	/**
+	 * This method makes the cell at the given position into a "given" cell,
+	 * preventing any future changes to its value.
+	 */
+	public void makeGiven(int row, int column) {
+		setGiven(row * 9 + column);
+	}
+
+	private void setGiven(int index) {
+		givens[index >> 6] |= 1L << (index & 63);
+	}
+
+	/**
+	 * This method resets all cells that are not given to the empty state.
+	 */
+	public void clear() {
+		for (int index = 0; index < 81; index++) {
+			if (!isGiven(index)) values[index] = 0;
+		}
+	}
+
+	/**
+	 * This method answers a copy of the receiver.
+	 */
+	public PackedSudokuBoard copy() {
+		return new PackedSudokuBoard(this);
+	}
+
+	/**
+	 * This method overwrites the state of the target board with the state of
+	 * the receiver. No objects are allocated.
+	 */
+	public void copyTo(PackedSudokuBoard target) {
+		System.arraycopy(values, 0, target.values, 0, 81);
+		target.givens[0] = givens[0];
+		target.givens[1] = givens[1];
+	}
+
+	/**
+	 * This method creates a new {@link SudokuBoard} with the same values and
+	 * given cells as the receiver.
+	 */
+	public SudokuBoard toSudokuBoard() {
+		SudokuBoard board = new SudokuBoard();
+		board.load(this);
+		return board;
+	}
+
+	/**
+	 * This method answers the values that can be placed into the cell at the
+	 * given position without conflicting with its row, column or box. Bit
+	 * <code>value - 1</code> of the answer is set if <code>value</code> is
+	 * possible.
+	 *
+	 * @see SudokuBoard#getCandidateMask(int, int)
+	 */
+	public int getCandidateMask(int row, int column) {
+		// Read the units directly rather than through views, so that nothing is allocated.
+		int used = getUnitMask(row)
+			| getUnitMask(9 + column)
+			| getUnitMask(18 + (row / 3) * 3 + column / 3);
+		return ~used & SudokuBoard.ALL_VALUES_MASK;
+	}
+
+	/**
+	 * This method answers true if no value is repeated in any row, column
+	 * or box.
+	 */
+	public boolean isValid() {
+		for (int unit = 0; unit < 27; unit++) {
+			if (!isValidUnit(unit)) return false;
+		}
+		return true;
+	}
+
+	public boolean isComplete() {
+		for (int index = 0; index < 81; index++) {
+			if (values[index] == 0) return false;
+		}
+		return true;
+	}
+
+	public Unit getRow(int row) {
+		return new Unit(row);
+	}
+
+	public Unit getColumn(int column) {
+		return new Unit(9 + column);
+	}
+
+	public Unit getBoxContainingCell(int row, int column) {
+		return new Unit(18 + (row / 3) * 3 + column / 3);
+	}
+
+	public PackedCell getCell(int row, int column) {
+		return new PackedCell(row * 9 + column);
+	}
+
+	private int getUnitMask(int unit) {
+		int mask = 0;
+		for (int index : UNITS[unit]) {
+			int value = values[index];
+			if (value != 0) mask |= 1 << (value - 1);
+		}
+		return mask;
+	}
+
+	private boolean isValidUnit(int unit) {
+		int mask = 0;
+		for (int index : UNITS[unit]) {
+			int value = values[index];
+			if (value == 0) continue;
+			int bit = 1 << (value - 1);
+			if ((mask & bit) != 0) return false;
+			mask |= bit;
+		}
+		return true;
+	}
+
+	/**
+	 * Two packed boards are equal if their cells have the same values. As
+	 * with {@link SudokuBoard#equals(Object)}, given-ness is not considered.
+	 */
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof PackedSudokuBoard)) return false;
+		return Arrays.equals(values, ((PackedSudokuBoard) object).values);
+	}
+
+	/**
+	 * The hash code is consistent with {@link SudokuBoard#hashCode()}: a
+	 * packed board and a {@link SudokuBoard} with the same values answer the
+	 * same hash code.
+	 */
+	@Override
+	public int hashCode() {
+		return getFingerprint().hashCode();
+	}
+
+	/**
+	 * This method answers a 128-bit fingerprint of the values on the board.
+	 * The answer is the same as {@link SudokuBoard#getFingerprint()} for a
+	 * board with the same values.
+	 */
+	public BoardFingerprint getFingerprint() {
+		long high = 0;
+		long low = 0;
+		for (int index = 0; index < 81; index++) {
+			int value = values[index];
+			if (value == 0) continue;
+			high ^= BoardFingerprint.getHighKey(index / 9, index % 9, value);
+			low ^= BoardFingerprint.getLowKey(index / 9, index % 9, value);
+		}
+		return new BoardFingerprint(high, low);
+	}
+
+	/**
+	 * This method answers the receiver in the same format used by
+	 * {@link SudokuGame#getBoardStateStorage()}: one digit per cell in
+	 * row-major order with given cells prefixed by '*'.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(100);
+		for (int index = 0; index < 81; index++) {
+			if (isGiven(index)) builder.append('*');
+			builder.append(values[index]);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * A view of one row, column or box of a {@link PackedSudokuBoard}.
+	 * Instances hold no state of their own.
+	 */
+	public class Unit {
+		private final int unit;
+
+		Unit(int unit) {
+			this.unit = unit;
+		}
+
+		/**
+		 * This method answers the value of the <code>index</code>th cell
+		 * of the unit. Cells in a box are numbered left to right, top to
+		 * bottom.
+		 */
+		public int getValue(int index) {
+			return values[UNITS[unit][index]];
+		}
+
+		public PackedCell getCell(int index) {
+			return new PackedCell(UNITS[unit][index]);
+		}
+
+		/**
+		 * This method answers a bit mask of the values present in the unit.
+		 */
+		public int getMask() {
+			return getUnitMask(unit);
+		}
+
+		public boolean isValid() {
+			return isValidUnit(unit);
+		}
+	}
+
+	/**
+	 * A view of one cell of a {@link PackedSudokuBoard}. Instances hold
+	 * no state other than the cell's position.
+	 */
+	public class PackedCell {
+		public final int row;
+		public final int column;
+		private final int index;
+
+		PackedCell(int index) {
+			this.index = index;
+			this.row = index / 9;
+			this.column = index % 9;
+		}
+
+		public int getValue() {
+			return values[index];
+		}
+
+		public void setValue(int value) {
+			PackedSudokuBoard.this.setValue(index, value);
+		}
+
+		public boolean isEmpty() {
+			return values[index] == 0;
+		}
+
+		public boolean isGiven() {
+			return PackedSudokuBoard.this.isGiven(index);
+		}
+
+		public int getCandidateMask() {
+			return PackedSudokuBoard.this.getCandidateMask(row, column);
+		}
+
+		@Override
+		public String toString() {
+			return "(" + row + "," + column + ") = " + getValue();
+		}
+	}
+}
@@ -44,19 +44,13 @@ public class Row {
 	/**
 	 * This method answers true if the row is valid. A row is considered valid
 	 * if all the values in it's cells are unique (i.e. no cell values are
-	 * repeated). An incomplete row can be valid.
+	 * repeated). An incomplete row can be valid. This is a constant time
+	 * operation.
 	 * 
 	 * @return true if the row is valid, false otherwise.
 	 */
 	public boolean isValid() {
-		boolean[] values = new boolean[10];
-		for (Cell cell : getCells()) {
-			if (cell.isEmpty()) continue;
-			int value = cell.getValue();
-			if (values[value]) return false;
-			values[value] = true;
-		}
-		return true;
+		return board.isRowValid(row);
 	}
 
 	public List<Cell> getCells() {
@@ -11,6 +11,8 @@
 package org.eclipse.sudoku.core.models;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.core.runtime.ListenerList;
@@ -25,6 +27,58 @@ public class SudokuBoard {
 	List<Box> boxes = new ArrayList<Box>();
 	private ListenerList boardStateListenerList = new ListenerList();
 
+	/*
+	 * Occupancy masks for each row, column and box. Bit (value - 1) is set
+	 * when at least one cell in the unit holds that value. The masks are
+	 * maintained incrementally as cells change so that candidate queries
+	 * never need to scan (or allocate) anything.
+	 */
+	private final int[] rowMasks = new int[9];
+	private final int[] columnMasks = new int[9];
+	private final int[] boxMasks = new int[9];
+
+	/*
+	 * Number of occurrences of each value in each unit (indexed by
+	 * unit * 10 + value), the number of surplus occurrences in each unit,
+	 * and the total surplus across the board. A unit is valid when its
+	 * surplus is zero; the board is valid when the total is zero.
+	 */
+	private final int[] rowCounts = new int[90];
+	private final int[] columnCounts = new int[90];
+	private final int[] boxCounts = new int[90];
+	private final int[] rowConflicts = new int[9];
+	private final int[] columnConflicts = new int[9];
+	private final int[] boxConflicts = new int[9];
+	private int conflicts = 0;
+
+	/*
+	 * The two halves of the board's fingerprint, maintained incrementally
+	 * as values are added and removed.
+	 * 
+	 * @see BoardFingerprint
+	 */
+	private long fingerprintHigh = 0;
+	private long fingerprintLow = 0;
+
+	/*
+	 * While a batch is open (batchDepth > 0), cell notifications are
+	 * recorded rather than sent. For each cell touched during the batch
+	 * (indexed by row * 9 + column), batchOldValues holds its value when it
+	 * was first touched (-1 if it has not been touched) and
+	 * batchPropertyChanges whether a property other than its value changed.
+	 * The touched cells are kept in batchCells in the order they were first
+	 * touched.
+	 */
+	private int batchDepth = 0;
+	private final int[] batchOldValues = new int[81];
+	private final boolean[] batchPropertyChanges = new boolean[81];
+	private final List<Cell> batchCells = new ArrayList<Cell>();
+
+	/**
+	 * Mask with a bit set for each of the values 1 through 9.
+	 */
+	public static final int ALL_VALUES_MASK = 0x1ff;
+
 	public SudokuBoard(int[][] board) {
 		initialize();
 		for (int column = 0; column < 9; column++) {
@@ -37,6 +91,7 @@ public class SudokuBoard {
 					cell = Cell.createGiven(row, column, this, value);
 				this.board[row][column] = cell;
 				cells.add(cell);
+				if (value != 0) addValue(row, column, value);
 			}
 		}
 	}
@@ -52,7 +107,21 @@ public class SudokuBoard {
 		}
 	}
 
+	/**
+	 * This constructor creates a copy of the provided board. The values and
+	 * given cells are copied; listeners are not.
+	 */
+	public SudokuBoard(SudokuBoard board) {
+		this();
+		for (Cell cell : cells) {
+			Cell source = board.getCell(cell.row, cell.column);
+			cell.load(source.getValue(), source.isGiven());
+		}
+		rebuildIndex();
+	}
+
 	private void initialize() {
+		Arrays.fill(batchOldValues, -1);
 		for(int index=0;index<9;index++) {
 			rows.add(new Row(index, this));
 			columns.add(new Column(index, this));
@@ -64,18 +133,169 @@ public class SudokuBoard {
 		}
 	}
 
+	/**
+	 * This method answers whether or not the board is valid, i.e. whether
+	 * no value is repeated in any row, column or box. This is a constant
+	 * time operation.
+	 * 
+	 * @return true if the board is valid, false otherwise.
+	 */
 	public boolean isValid() {
-		if (getInvalidRows().size() > 0) return false;
-		if (getInvalidColumns().size() > 0) return false;
-		if (getInvalidBoxes().size() > 0) return false;
-		
-		return true;
+		return conflicts == 0;
+	}
+
+	boolean isRowValid(int row) {
+		return rowConflicts[row] == 0;
+	}
+
+	boolean isColumnValid(int column) {
+		return columnConflicts[column] == 0;
+	}
+
+	boolean isBoxValid(int row, int column) {
+		return boxConflicts[getBoxIndex(row, column)] == 0;
+	}
+
+	boolean isCellValid(int row, int column) {
+		return rowConflicts[row] == 0 
+			&& columnConflicts[column] == 0 
+			&& boxConflicts[getBoxIndex(row, column)] == 0;
 	}
 
 	public void setValue(int row, int column, int value) {
 		getCell(row, column).setValue(value);
 	}
 
+	/**
+	 * This method answers the values that can be placed into the cell at the
+	 * given position without conflicting with a value already present in the
+	 * cell's row, column or box. The answer is encoded as a bit mask; bit
+	 * <code>value - 1</code> is set if <code>value</code> is possible.
+	 * This is a constant time operation.
+	 * 
+	 * @return a bit mask of the possible values for the cell.
+	 */
+	public int getCandidateMask(int row, int column) {
+		int used = rowMasks[row] | columnMasks[column] | boxMasks[getBoxIndex(row, column)];
+		return ~used & ALL_VALUES_MASK;
+	}
+
+	/**
+	 * This method answers the number of values that can be placed into the
+	 * cell at the given position. This is a constant time operation.
+	 * 
+	 * @see #getCandidateMask(int, int)
+	 */
+	public int getCandidateCount(int row, int column) {
+		return Integer.bitCount(getCandidateMask(row, column));
+	}
+
+	/**
+	 * This method answers a compact copy of the values and given cells of
+	 * the receiver that can later be passed to {@link #restore(PackedSudokuBoard)}.
+	 */
+	public PackedSudokuBoard snapshot() {
+		return new PackedSudokuBoard(this);
+	}
+
+	/**
+	 * This method replaces the values and given cells of the receiver with
+	 * those captured in the snapshot. Cells are updated in bulk; rather than
+	 * a notification for each cell, listeners are sent a single 
+	 * {@link SudokuBoardStateListener#boardRestored(SudokuBoard)}.
+	 */
+	public void restore(PackedSudokuBoard snapshot) {
+		load(snapshot);
+		notifyBoardRestored();
+	}
+
+	void load(PackedSudokuBoard snapshot) {
+		for (Cell cell : cells) {
+			cell.load(snapshot.getValue(cell.row, cell.column), snapshot.isGiven(cell.row, cell.column));
+		}
+		rebuildIndex();
+	}
+
+	private void rebuildIndex() {
+		Arrays.fill(rowMasks, 0);
+		Arrays.fill(columnMasks, 0);
+		Arrays.fill(boxMasks, 0);
+		Arrays.fill(rowCounts, 0);
+		Arrays.fill(columnCounts, 0);
+		Arrays.fill(boxCounts, 0);
+		Arrays.fill(rowConflicts, 0);
+		Arrays.fill(columnConflicts, 0);
+		Arrays.fill(boxConflicts, 0);
+		conflicts = 0;
+		fingerprintHigh = 0;
+		fingerprintLow = 0;
+		for (Cell cell : cells) {
+			if (!cell.isEmpty()) addValue(cell.row, cell.column, cell.getValue());
+		}
+	}
+
+	/**
+	 * This method is called by a {@link Cell} owned by the receiver when its
+	 * value changes so that the occupancy masks and counters can be updated.
+	 */
+	void cellValueChanged(Cell cell, int oldValue) {
+		int newValue = cell.getValue();
+		if (newValue == oldValue) return;
+		if (oldValue != 0) removeValue(cell.row, cell.column, oldValue);
+		if (newValue != 0) addValue(cell.row, cell.column, newValue);
+	}
+
+	private void addValue(int row, int column, int value) {
+		int bit = 1 << (value - 1);
+		int box = getBoxIndex(row, column);
+		fingerprintHigh ^= BoardFingerprint.getHighKey(row, column, value);
+		fingerprintLow ^= BoardFingerprint.getLowKey(row, column, value);
+		rowMasks[row] |= bit;
+		columnMasks[column] |= bit;
+		boxMasks[box] |= bit;
+		if (++rowCounts[row * 10 + value] > 1) {
+			rowConflicts[row]++;
+			conflicts++;
+		}
+		if (++columnCounts[column * 10 + value] > 1) {
+			columnConflicts[column]++;
+			conflicts++;
+		}
+		if (++boxCounts[box * 10 + value] > 1) {
+			boxConflicts[box]++;
+			conflicts++;
+		}
+	}
+
+	private void removeValue(int row, int column, int value) {
+		int bit = 1 << (value - 1);
+		int box = getBoxIndex(row, column);
+		fingerprintHigh ^= BoardFingerprint.getHighKey(row, column, value);
+		fingerprintLow ^= BoardFingerprint.getLowKey(row, column, value);
+		int count = --rowCounts[row * 10 + value];
+		if (count == 0) rowMasks[row] &= ~bit;
+		else {
+			rowConflicts[row]--;
+			conflicts--;
+		}
+		count = --columnCounts[column * 10 + value];
+		if (count == 0) columnMasks[column] &= ~bit;
+		else {
+			columnConflicts[column]--;
+			conflicts--;
+		}
+		count = --boxCounts[box * 10 + value];
+		if (count == 0) boxMasks[box] &= ~bit;
+		else {
+			boxConflicts[box]--;
+			conflicts--;
+		}
+	}
+
+	private int getBoxIndex(int row, int column) {
+		return (row / 3) * 3 + column / 3;
+	}
+
 	public List<Box> getInvalidBoxes() {
 		List<Box> invalidBoxes = new ArrayList<Box>();
 		for (Box box : boxes) {
@@ -118,6 +338,7 @@ public class SudokuBoard {
 	}
 	
 	protected boolean equals(SudokuBoard other) {
+		if (fingerprintLow != other.fingerprintLow || fingerprintHigh != other.fingerprintHigh) return false;
 		for(int row=0;row<9;row++) {
 			for (int column=0;column<9;column++) {
 				if (getValue(row, column) != other.getValue(row, column)) return false;
@@ -126,10 +347,22 @@ public class SudokuBoard {
 		return true;
 	}
 	
+	/**
+	 * The hash code is derived from the board's fingerprint, which is
+	 * maintained as cells change; this is a constant time operation.
+	 */
 	@Override
 	public int hashCode() {
-		// TODO Make a better hashCode method.
-		return 42;
+		return (int)(fingerprintLow ^ (fingerprintLow >>> 32));
+	}
+
+	/**
+	 * This method answers a 128-bit fingerprint of the values on the board.
+	 * Boards that are equal have the same fingerprint. This is a constant
+	 * time operation.
+	 */
+	public BoardFingerprint getFingerprint() {
+		return new BoardFingerprint(fingerprintHigh, fingerprintLow);
 	}
 
 	public Cell getCell(int row, int column) {
@@ -162,13 +395,92 @@ public class SudokuBoard {
 		return rows;
 	}
 
+	/**
+	 * This method clears every cell that is not given. Rather than a
+	 * notification for each cell, listeners are sent a single
+	 * {@link SudokuBoardStateListener#boardCleared(SudokuBoard)}. If a batch
+	 * is open, the cleared cells are also included in its changes.
+	 */
 	public void clear() {
-		for (Cell cell : cells) {
-			cell.clear();
+		boolean nested = isBatching();
+		beginBatch();
+		try {
+			for (Cell cell : cells) {
+				cell.clear();
+			}
+		} finally {
+			endBatch(nested);
 		}
 		notifyBoardCleared();
 	}
 
+	/**
+	 * This method opens a batch. Until the matching call to
+	 * {@link #endBatch()}, changes to the receiver's cells do not cause
+	 * individual notifications to be sent; instead, when the outermost batch
+	 * ends, listeners are sent a single
+	 * {@link SudokuBoardStateListener#cellsChanged(SudokuBoard, List)} that
+	 * describes the net change to each affected cell. Batches may be nested.
+	 * 
+	 * @see #runBatch(Runnable)
+	 */
+	public void beginBatch() {
+		batchDepth++;
+	}
+
+	/**
+	 * This method closes the batch opened by the matching call to
+	 * {@link #beginBatch()}. Callers should use a <code>finally</code> block
+	 * to ensure that this method is called.
+	 */
+	public void endBatch() {
+		endBatch(true);
+	}
+
+	private void endBatch(boolean notify) {
+		if (batchDepth == 0) throw new IllegalStateException("No batch is open");
+		if (--batchDepth > 0) return;
+		List<CellChange> changes = new ArrayList<CellChange>(batchCells.size());
+		for (Cell cell : batchCells) {
+			int index = cell.row * 9 + cell.column;
+			int oldValue = batchOldValues[index];
+			if (oldValue != cell.getValue() || batchPropertyChanges[index]) {
+				changes.add(new CellChange(cell, oldValue, cell.getValue()));
+			}
+			batchOldValues[index] = -1;
+			batchPropertyChanges[index] = false;
+		}
+		batchCells.clear();
+		if (notify && !changes.isEmpty()) notifyCellsChanged(Collections.unmodifiableList(changes));
+	}
+
+	/**
+	 * This method runs the provided runnable inside a batch.
+	 * 
+	 * @see #beginBatch()
+	 */
+	public void runBatch(Runnable runnable) {
+		beginBatch();
+		try {
+			runnable.run();
+		} finally {
+			endBatch();
+		}
+	}
+
+	public boolean isBatching() {
+		return batchDepth > 0;
+	}
+
+	private void recordChange(Cell cell, int oldValue, boolean property) {
+		int index = cell.row * 9 + cell.column;
+		if (batchOldValues[index] == -1) {
+			batchOldValues[index] = oldValue;
+			batchCells.add(cell);
+		}
+		if (property) batchPropertyChanges[index] = true;
+	}
+
 	public List<Cell> getNonEmptyCells() {
 		List<Cell> cells = new ArrayList<Cell>();
 		for (Cell cell : this.cells) {
@@ -186,7 +498,7 @@ public class SudokuBoard {
 	}
 	
 	public void removeSudokuBoardStateListener(SudokuBoardStateListener listener) {
-		boardStateListenerList.add(listener);
+		boardStateListenerList.remove(listener);
 	}
 
 	public void addSudokuBoardStateListener(SudokuBoardStateListener listener) {
@@ -194,12 +506,30 @@ public class SudokuBoard {
 	}
 
 	protected void notifyCellChanged(Cell cell, int newValue, int oldValue) {
+		if (isBatching()) {
+			recordChange(cell, oldValue, false);
+			return;
+		}
 		for (Object object : boardStateListenerList.getListeners()) {
 			SudokuBoardStateListener listener = (SudokuBoardStateListener)object;
 			listener.cellChanged(this, cell, newValue, oldValue);
 		}
 	}
 
+	private void notifyCellsChanged(List<CellChange> changes) {
+		for (Object object : boardStateListenerList.getListeners()) {
+			SudokuBoardStateListener listener = (SudokuBoardStateListener)object;
+			listener.cellsChanged(this, changes);
+		}
+	}
+
+	private void notifyBoardRestored() {
+		for (Object object : boardStateListenerList.getListeners()) {
+			SudokuBoardStateListener listener = (SudokuBoardStateListener)object;
+			listener.boardRestored(this);
+		}
+	}
+
 	private void notifyBoardCleared() {
 		for (Object object : boardStateListenerList.getListeners()) {
 			SudokuBoardStateListener listener = (SudokuBoardStateListener)object;
@@ -208,6 +538,10 @@ public class SudokuBoard {
 	}
 
 	protected void notifyCellChanged(Cell cell) {
+		if (isBatching()) {
+			recordChange(cell, cell.getValue(), true);
+			return;
+		}
 		for (Object object : boardStateListenerList.getListeners()) {
 			SudokuBoardStateListener listener = (SudokuBoardStateListener)object;
 			listener.cellChanged(this, cell);
@@ -0,0 +1,394 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.models;
+
+import java.util.Arrays;
+
+/**
+ * This class maps a puzzle to a canonical form that is shared by every
+ * puzzle equivalent to it. Two puzzles are equivalent if one can be turned
+ * into the other by some combination of relabelling the digits, permuting
+ * the rows within a band (or the columns within a stack), permuting the
+ * bands (or the stacks), and transposing the board. Only the given cells
+ * of a board are considered.
+ * <p>
+ * The canonical form is the lexicographically smallest 81 digit string
+ * (row-major, with '0' for an empty cell) over all of the equivalent
+ * puzzles, where the digits of each candidate are relabelled in order of
+ * first appearance. The search runs over each of the 2 * 1296 column
+ * arrangements and builds the rows one at a time, abandoning an
+ * arrangement as soon as a row compares greater than the corresponding
+ * row of the best answer found so far.
+ * <p>
+ * Rows, bands, columns and stacks that hold the same givens can be
+ * exchanged without changing the puzzle, so they are only tried in their
+ * original order; otherwise ties with the best answer would be explored
+ * again for each of their orders. A typical puzzle takes about a
+ * millisecond; sparse puzzles, which have the most ties, take no longer.
+ * <p>
+ * Instances keep their working state in preallocated arrays and are not
+ * thread safe; use one instance per thread when canonicalizing in
+ * parallel.
+ */
+public class SudokuBoardCanonicalizer {
+
+	private static final int[][] PERMUTATIONS_OF_THREE = new int[][] {
+		{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}
+	};
+
+	/**
+	 * Every arrangement of the columns that keeps the stacks intact; entry
+	 * <code>i</code> of each arrangement is the column that is moved into
+	 * position <code>i</code>.
+	 */
+	private static final int[][] COLUMN_ARRANGEMENTS = new int[1296][9];
+
+	static {
+		int arrangement = 0;
+		for (int[] stacks : PERMUTATIONS_OF_THREE) {
+			for (int[] first : PERMUTATIONS_OF_THREE) {
+				for (int[] second : PERMUTATIONS_OF_THREE) {
+					for (int[] third : PERMUTATIONS_OF_THREE) {
+						int[][] within = new int[][] {first, second, third};
+						for (int column = 0; column < 9; column++) {
+							COLUMN_ARRANGEMENTS[arrangement][column] = stacks[column / 3] * 3 + within[column / 3][column % 3];
+						}
+						arrangement++;
+					}
+				}
+			}
+		}
+	}
+
+	private static final int[] POWERS_OF_TEN = new int[] {
+		1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000
+	};
+
+	/**
+	 * Larger than any encoded row.
+	 */
+	private static final int WORST_ROW = Integer.MAX_VALUE;
+
+	/*
+	 * The givens, row-major, as provided and transposed.
+	 */
+	private final int[][] grids = new int[2][81];
+
+	/*
+	 * Each row of the best answer found so far, encoded as a nine digit
+	 * decimal number so that rows compare numerically.
+	 */
+	private final int[] best = new int[9];
+
+	/*
+	 * For each row of each grid, the smallest arrangement of its empty and
+	 * non-empty cells that any column arrangement can produce (as a 9 bit
+	 * number, first column most significant). Only rows whose pattern is
+	 * the smallest of all can start the canonical form.
+	 */
+	private final int[][] patterns = new int[2][9];
+	private int bestPattern;
+
+	/*
+	 * The state of the search. The digit labels assigned by the first
+	 * n rows of the current candidate are in labels[n].
+	 */
+	private int[] grid;
+	private int[] pattern;
+	private int[] columns;
+	private int[] rowIds;
+	private int[] bandIds;
+	private final boolean[] usedRows = new boolean[9];
+	private final boolean[] usedBands = new boolean[3];
+	private final int[] bands = new int[3];
+	private final int[][] labels = new int[10][10];
+	private final int[] labelCounts = new int[10];
+
+	/*
+	 * For each row of a grid, the first row of its band that has the same
+	 * givens, and for each band, the first band that has the same rows in
+	 * some order; likewise for the columns and stacks.
+	 */
+	private final int[][] rowIdentities = new int[2][9];
+	private final int[][] bandIdentities = new int[2][3];
+	private final int[] columnIds = new int[9];
+	private final int[] stackIds = new int[3];
+	private final int[] sameLines = new int[9];
+	private final int[][] signatures = new int[3][3];
+
+	/**
+	 * This method answers the canonical form of the given cells of the
+	 * board as an 81 character string.
+	 */
+	public String canonicalize(SudokuBoard board) {
+		for (int row = 0; row < 9; row++) {
+			for (int column = 0; column < 9; column++) {
+				Cell cell = board.getCell(row, column);
+				setGiven(row, column, cell.isGiven() ? cell.getValue() : 0);
+			}
+		}
+		return toString(search());
+	}
+
+	/**
+	 * This method answers the canonical form of the given cells of the
+	 * board as an 81 character string.
+	 */
+	public String canonicalize(PackedSudokuBoard board) {
+		for (int row = 0; row < 9; row++) {
+			for (int column = 0; column < 9; column++) {
+				setGiven(row, column, board.isGiven(row, column) ? board.getValue(row, column) : 0);
+			}
+		}
+		return toString(search());
+	}
+
+	/**
+	 * This method answers a new board whose given cells are the canonical
+	 * form of the given cells of the provided board.
+	 */
+	public PackedSudokuBoard getCanonicalBoard(SudokuBoard board) {
+		return toBoard(canonicalize(board));
+	}
+
+	public PackedSudokuBoard getCanonicalBoard(PackedSudokuBoard board) {
+		return toBoard(canonicalize(board));
+	}
+
+	/**
+	 * This method answers the fingerprint of the canonical form of the
+	 * board. Equivalent puzzles have the same canonical fingerprint, so it
+	 * can be used to index a puzzle library by equivalence class.
+	 */
+	public BoardFingerprint getCanonicalFingerprint(SudokuBoard board) {
+		return getCanonicalBoard(board).getFingerprint();
+	}
+
+	public BoardFingerprint getCanonicalFingerprint(PackedSudokuBoard board) {
+		return getCanonicalBoard(board).getFingerprint();
+	}
+
+	private void setGiven(int row, int column, int value) {
+		grids[0][row * 9 + column] = value;
+		grids[1][column * 9 + row] = value;
+	}
+
+	private int[] search() {
+		Arrays.fill(best, WORST_ROW);
+		bestPattern = Integer.MAX_VALUE;
+		for (int index = 0; index < 2; index++) {
+			for (int row = 0; row < 9; row++) {
+				patterns[index][row] = getSmallestPattern(grids[index], row);
+				bestPattern = Math.min(bestPattern, patterns[index][row]);
+			}
+		}
+		for (int index = 0; index < 2; index++) {
+			// a symmetric grid gives the same answers transposed
+			if (index == 1 && Arrays.equals(grids[0], grids[1])) break;
+			grid = grids[index];
+			pattern = patterns[index];
+			rowIds = rowIdentities[index];
+			bandIds = bandIdentities[index];
+			identify(grid, false, rowIds, bandIds);
+			identify(grid, true, columnIds, stackIds);
+			for (int[] columns : COLUMN_ARRANGEMENTS) {
+				if (isRedundant(columns)) continue;
+				this.columns = columns;
+				search(0);
+			}
+		}
+		return best;
+	}
+
+	/*
+	 * Finds, for each row (or column) of the grid, the first line of its
+	 * band (or stack) with the same givens, and for each band (or stack),
+	 * the first one whose lines have the same givens in some order.
+	 */
+	private void identify(int[] grid, boolean byColumn, int[] lineIds, int[] groupIds) {
+		for (int line = 0; line < 9; line++) {
+			sameLines[line] = line;
+			for (int other = 0; other < line; other++) {
+				if (isSameLine(grid, byColumn, line, other)) {
+					sameLines[line] = sameLines[other];
+					break;
+				}
+			}
+			lineIds[line] = line;
+			for (int other = line / 3 * 3; other < line; other++) {
+				if (sameLines[other] == sameLines[line]) {
+					lineIds[line] = other;
+					break;
+				}
+			}
+		}
+		for (int group = 0; group < 3; group++) {
+			System.arraycopy(sameLines, group * 3, signatures[group], 0, 3);
+			Arrays.sort(signatures[group]);
+			groupIds[group] = group;
+			for (int other = 0; other < group; other++) {
+				if (Arrays.equals(signatures[other], signatures[group])) {
+					groupIds[group] = other;
+					break;
+				}
+			}
+		}
+	}
+
+	private boolean isSameLine(int[] grid, boolean byColumn, int line, int other) {
+		for (int index = 0; index < 9; index++) {
+			int value = byColumn ? grid[index * 9 + line] : grid[line * 9 + index];
+			int otherValue = byColumn ? grid[index * 9 + other] : grid[other * 9 + index];
+			if (value != otherValue) return false;
+		}
+		return true;
+	}
+
+	/*
+	 * An arrangement is redundant if it puts identical columns of a stack,
+	 * or identical stacks, out of their original order: exchanging them
+	 * gives an arrangement that is tried and yields the same grid.
+	 */
+	private boolean isRedundant(int[] columns) {
+		for (int index = 0; index < 9; index++) {
+			for (int other = index + 1; other < index / 3 * 3 + 3; other++) {
+				if (columnIds[columns[other]] == columnIds[columns[index]] && columns[other] < columns[index]) return true;
+			}
+		}
+		for (int stack = 0; stack < 3; stack++) {
+			for (int other = stack + 1; other < 3; other++) {
+				int first = columns[stack * 3] / 3;
+				int second = columns[other * 3] / 3;
+				if (stackIds[first] == stackIds[second] && second < first) return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * The smallest pattern puts the stacks in increasing order of the
+	 * number of non-empty cells, with the non-empty cells of each stack
+	 * at its right.
+	 */
+	private int getSmallestPattern(int[] grid, int row) {
+		int[] counts = new int[3];
+		for (int column = 0; column < 9; column++) {
+			if (grid[row * 9 + column] != 0) counts[column / 3]++;
+		}
+		Arrays.sort(counts);
+		int pattern = 0;
+		for (int count : counts) {
+			pattern = (pattern << 3) | ((1 << count) - 1);
+		}
+		return pattern;
+	}
+
+	/*
+	 * Tries each row that can be placed at the position, descending only
+	 * when the rows so far are no worse than the best answer. Of several
+	 * unused bands (or rows of a band) with the same givens, only the
+	 * first is tried.
+	 */
+	private void search(int position) {
+		if (position == 9) return;
+		int band = position / 3;
+		if (position % 3 == 0) {
+			for (int candidate = 0; candidate < 3; candidate++) {
+				if (usedBands[candidate] || isRepeated(usedBands, bandIds, 0, candidate)) continue;
+				usedBands[candidate] = true;
+				bands[band] = candidate;
+				for (int row = candidate * 3; row < candidate * 3 + 3; row++) {
+					if (isRepeated(usedRows, rowIds, candidate * 3, row)) continue;
+					if (position > 0 || pattern[row] == bestPattern) tryRow(position, row);
+				}
+				usedBands[candidate] = false;
+			}
+		} else {
+			for (int row = bands[band] * 3; row < bands[band] * 3 + 3; row++) {
+				if (!usedRows[row] && !isRepeated(usedRows, rowIds, bands[band] * 3, row)) tryRow(position, row);
+			}
+		}
+	}
+
+	/*
+	 * Answers whether an unused line (or group) before this one, from
+	 * first on, is identical to it.
+	 */
+	private boolean isRepeated(boolean[] used, int[] ids, int first, int line) {
+		for (int other = first; other < line; other++) {
+			if (!used[other] && ids[other] == ids[line]) return true;
+		}
+		return false;
+	}
+
+	private void tryRow(int position, int row) {
+		int code = encode(position, row);
+		if (code < 0) return;
+		if (code < best[position]) {
+			best[position] = code;
+			for (int next = position + 1; next < 9; next++) {
+				best[next] = WORST_ROW;
+			}
+		}
+		usedRows[row] = true;
+		search(position + 1);
+		usedRows[row] = false;
+	}
+
+	/*
+	 * Answers the row, relabelled and encoded, or -1 as soon as it is
+	 * known to be greater than the corresponding row of the best answer.
+	 */
+	private int encode(int position, int row) {
+		int[] previous = labels[position];
+		int[] current = labels[position + 1];
+		System.arraycopy(previous, 0, current, 0, 10);
+		int count = labelCounts[position];
+		int target = best[position];
+		int code = 0;
+		for (int index = 0; index < 9; index++) {
+			int value = grid[row * 9 + columns[index]];
+			if (value != 0) {
+				int label = current[value];
+				if (label == 0) {
+					label = ++count;
+					current[value] = label;
+				}
+				value = label;
+			}
+			code = code * 10 + value;
+			if (code > target / POWERS_OF_TEN[8 - index]) return -1;
+		}
+		labelCounts[position + 1] = count;
+		return code;
+	}
+
+	private String toString(int[] rows) {
+		StringBuilder builder = new StringBuilder(81);
+		for (int row : rows) {
+			for (int index = 8; index >= 0; index--) {
+				builder.append((char) ('0' + (row / POWERS_OF_TEN[index]) % 10));
+			}
+		}
+		return builder.toString();
+	}
+
+	private PackedSudokuBoard toBoard(String canonical) {
+		PackedSudokuBoard board = new PackedSudokuBoard();
+		for (int index = 0; index < 81; index++) {
+			int value = canonical.charAt(index) - '0';
+			if (value == 0) continue;
+			board.setValue(index / 9, index % 9, value);
+			board.makeGiven(index / 9, index % 9);
+		}
+		return board;
+	}
+}
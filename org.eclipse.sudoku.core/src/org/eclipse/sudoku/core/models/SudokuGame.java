@@ -17,6 +17,8 @@ import java.util.List;
 
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionPoint;
+import org.eclipse.core.runtime.IRegistryChangeEvent;
+import org.eclipse.core.runtime.IRegistryChangeListener;
 import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.sudoku.core.exceptions.CannotCreateSudokuBoardException;
@@ -26,8 +28,19 @@ import org.eclipse.sudoku.core.internal.Solver;
 import org.eclipse.sudoku.core.listeners.SudokuBoardChangeListener;
 
 public class SudokuGame {
+	private static final String NAMESPACE = "org.eclipse.sudoku.core";
+
 	private SudokuBoard board;
 	private ListenerList boardChangeListenerList = new ListenerList();
+
+	/*
+	 * The contributions to the factory and solver extension points are
+	 * cached so that their instances can be reused; the caches are
+	 * discarded when the extensions change.
+	 */
+	private List<Factory> factories;
+	private List<Solver> solvers;
+	private IRegistryChangeListener registryChangeListener;
 	
 	public SudokuGame(String storedBoard) {
 		setBoard(storedBoard);
@@ -81,25 +94,34 @@ public class SudokuGame {
 		if (storedBoard.length() == 0) return null;
 		try {
 			StringReader reader = new StringReader(storedBoard);
-			SudokuBoard board = new SudokuBoard();
+			PackedSudokuBoard board = new PackedSudokuBoard();
 			for (int row = 0; row < 9; row++) {
 				for (int column = 0; column < 9; column++) {
-					Cell cell = board.getCell(row, column);
 					char next = (char) reader.read();
 					boolean isGiven = next == '*';
 					if (isGiven) next = (char) reader.read();
 					int value = Character.getNumericValue(next);
-					cell.setValue(value);
-					if (isGiven) cell.makeGiven();
+					board.setValue(row, column, value);
+					if (isGiven) board.makeGiven(row, column);
 				}
 			}
-			return board;
+			return board.toSudokuBoard();
 		} catch (Exception e) {
 			return null;
 		}		
 	}
 
 	public String getBoardStateStorage() {
+		return toStorageString(board);
+	}
+
+	/**
+	 * This method answers the board in the form that is stored between
+	 * sessions: the value of each cell in row-major order, with each given
+	 * value preceded by '*'. The answer can be passed to
+	 * {@link #SudokuGame(String)}.
+	 */
+	public static String toStorageString(SudokuBoard board) {
 		StringBuilder builder = new StringBuilder();
 
 		for (int row = 0; row < 9; row++) {
@@ -116,14 +138,22 @@ public class SudokuGame {
 		return board;
 	}
 	
-	public List<Factory> getFactories() {
-		List<Factory> factories = new ArrayList<Factory>();
-		for (IConfigurationElement element : getFactoryExtensionPoint().getConfigurationElements()) {
-			if (!"factory".equals(element.getName())) continue;
-			String name = element.getAttribute("name");
-			factories.add(new Factory(name, element));
+	/**
+	 * This method answers the contributed factories. The list is a copy
+	 * that the caller is free to change; the factories themselves are
+	 * shared.
+	 */
+	public synchronized List<Factory> getFactories() {
+		if (factories == null) {
+			listenToRegistry();
+			factories = new ArrayList<Factory>();
+			for (IConfigurationElement element : getFactoryExtensionPoint().getConfigurationElements()) {
+				if (!"factory".equals(element.getName())) continue;
+				String name = element.getAttribute("name");
+				factories.add(new Factory(name, element));
+			}
 		}
-		return factories;
+		return new ArrayList<Factory>(factories);
 	}
 
 	protected IExtensionPoint getFactoryExtensionPoint() {
@@ -158,13 +188,45 @@ public class SudokuGame {
 		});
 	}
 
-	public List<Solver> getSolvers() {
-		List<Solver> solvers = new ArrayList<Solver>();
-		for (IConfigurationElement element : getSolverExtensionPoint().getConfigurationElements()) {
-			if (!"solver".equals(element.getName())) continue;
-			String name = element.getAttribute("name");
-			solvers.add(new Solver(name, element));
+	/**
+	 * This method answers the contributed solvers. The list is a copy that
+	 * the caller is free to change; the solvers themselves are shared.
+	 */
+	public synchronized List<Solver> getSolvers() {
+		if (solvers == null) {
+			listenToRegistry();
+			solvers = new ArrayList<Solver>();
+			for (IConfigurationElement element : getSolverExtensionPoint().getConfigurationElements()) {
+				if (!"solver".equals(element.getName())) continue;
+				String name = element.getAttribute("name");
+				solvers.add(new Solver(name, element));
+			}
 		}
-		return solvers;
+		return new ArrayList<Solver>(solvers);
+	}
+
+	private void listenToRegistry() {
+		if (registryChangeListener != null) return;
+		registryChangeListener = new IRegistryChangeListener() {
+			public void registryChanged(IRegistryChangeEvent event) {
+				synchronized (SudokuGame.this) {
+					if (event.getExtensionDeltas(NAMESPACE, "factory").length > 0) factories = null;
+					if (event.getExtensionDeltas(NAMESPACE, "solver").length > 0) solvers = null;
+				}
+			}
+		};
+		Platform.getExtensionRegistry().addRegistryChangeListener(registryChangeListener, NAMESPACE);
+	}
+
+	/**
+	 * This method stops listening to the extension registry and discards
+	 * the cached factories and solvers.
+	 */
+	public synchronized void dispose() {
+		factories = null;
+		solvers = null;
+		if (registryChangeListener == null) return;
+		Platform.getExtensionRegistry().removeRegistryChangeListener(registryChangeListener);
+		registryChangeListener = null;
 	}
 }
@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.solvers;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+
+/**
+ * This class solves many boards concurrently. Boards are read from an
+ * {@link Iterator} as the results are consumed, so that no more than a
+ * few boards per thread are held in memory at a time; this makes it
+ * possible to work through very large collections of puzzles.
+ * <p>
+ * Each thread that solves boards gets its own solver instance from the
+ * {@link SudokuBoardSolverProvider} the first time it needs one, and
+ * reuses it for every board after that. Each board is solved on a
+ * detached copy; the boards that are passed in are never changed.
+ * <p>
+ * Boards can be solved on a pool that is created (and, with
+ * {@link #shutdown()}, disposed of) by the batch solver, or on any
+ * {@link ExecutorService} provided by the caller.
+ */
+public class BatchSolver {
+	/*
+	 * The number of boards that may be queued or in progress for each
+	 * thread.
+	 */
+	private static final int BOARDS_PER_THREAD = 4;
+
+	private final SudokuBoardSolverProvider provider;
+	private final ExecutorService executor;
+	private final int parallelism;
+	private final boolean ownsExecutor;
+
+	private final ThreadLocal<SudokuBoardSolver> solvers = new ThreadLocal<SudokuBoardSolver>();
+
+	/**
+	 * This constructor creates a batch solver that solves on its own pool
+	 * of <code>threads</code> daemon threads. The pool should be disposed of
+	 * with {@link #shutdown()} when the batch solver is no longer needed.
+	 */
+	public BatchSolver(SudokuBoardSolverProvider provider, int threads) {
+		this(provider, createExecutor(threads), threads, true);
+	}
+
+	/**
+	 * This constructor creates a batch solver that solves on the provided
+	 * executor, which is expected to run about <code>parallelism</code>
+	 * tasks at a time. The executor is not shut down by the batch solver.
+	 */
+	public BatchSolver(SudokuBoardSolverProvider provider, ExecutorService executor, int parallelism) {
+		this(provider, executor, parallelism, false);
+	}
+
+	private BatchSolver(SudokuBoardSolverProvider provider, ExecutorService executor, int parallelism, boolean ownsExecutor) {
+		this.provider = provider;
+		this.executor = executor;
+		this.parallelism = Math.max(1, parallelism);
+		this.ownsExecutor = ownsExecutor;
+	}
+
+	private static ExecutorService createExecutor(int threads) {
+		return Executors.newFixedThreadPool(Math.max(1, threads), new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Sudoku Batch Solver " + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * This method answers an iterator over the results of solving the
+	 * boards. Boards are taken from <code>boards</code> and submitted for
+	 * solving as the results are consumed. If <code>ordered</code> is
+	 * <code>true</code>, results are answered in the order that the boards
+	 * were taken; otherwise, they are answered in the order that they
+	 * complete, which keeps the threads busier when some boards take much
+	 * longer than others.
+	 * <p>
+	 * The monitor is shared by every solver in the batch (so must be
+	 * thread safe) and may be <code>null</code>. When it is cancelled, no
+	 * more boards are taken; the results of the boards already submitted
+	 * are still answered.
+	 */
+	public Iterator<Result> solve(Iterator<SudokuBoard> boards, boolean ordered, IProgressMonitor monitor) {
+		if (monitor == null) monitor = new NullProgressMonitor();
+		return new ResultIterator(boards, ordered, monitor);
+	}
+
+	/**
+	 * This method shuts down the pool that was created by the batch
+	 * solver. It has no effect if the batch solver was given an executor.
+	 */
+	public void shutdown() {
+		if (ownsExecutor) executor.shutdown();
+	}
+
+	private Result solve(int index, SudokuBoard board, IProgressMonitor monitor) {
+		long start = System.nanoTime();
+		SudokuBoard solution = null;
+		Exception exception = null;
+		try {
+			if (!board.isValid()) throw new CannotSolveSudokuBoardException();
+			SudokuBoard workingCopy = new SudokuBoard(board);
+			getSolver().solve(workingCopy, monitor);
+			if (workingCopy.isComplete()) solution = workingCopy;
+		} catch (Exception e) {
+			exception = e;
+		}
+		return new Result(index, board, solution, exception, System.nanoTime() - start);
+	}
+
+	private SudokuBoardSolver getSolver() throws Exception {
+		SudokuBoardSolver solver = solvers.get();
+		if (solver == null) {
+			solver = provider.createSolver();
+			solvers.set(solver);
+		}
+		return solver;
+	}
+
+	/**
+	 * Instances of this class hold the outcome of solving one board of a
+	 * batch.
+	 */
+	public static class Result {
+		private final int index;
+		private final SudokuBoard board;
+		private final SudokuBoard solution;
+		private final Exception exception;
+		private final long time;
+
+		Result(int index, SudokuBoard board, SudokuBoard solution, Exception exception, long time) {
+			this.index = index;
+			this.board = board;
+			this.solution = solution;
+			this.exception = exception;
+			this.time = time;
+		}
+
+		/**
+		 * This method answers the position of the board in the batch,
+		 * starting at 0.
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		public SudokuBoard getBoard() {
+			return board;
+		}
+
+		/**
+		 * This method answers the solved copy of the board, or
+		 * <code>null</code> if the board was not solved.
+		 */
+		public SudokuBoard getSolution() {
+			return solution;
+		}
+
+		public boolean isSolved() {
+			return solution != null;
+		}
+
+		/**
+		 * This method answers the exception that prevented the board from
+		 * being solved (e.g. a {@link CannotSolveSudokuBoardException}), or
+		 * <code>null</code> if there was none. A board that was not solved
+		 * because the batch was cancelled has no exception.
+		 */
+		public Exception getException() {
+			return exception;
+		}
+
+		/**
+		 * This method answers the time, in nanoseconds, spent solving the
+		 * board.
+		 */
+		public long getTime() {
+			return time;
+		}
+	}
+
+	private class ResultIterator implements Iterator<Result> {
+		private final Iterator<SudokuBoard> boards;
+		private final boolean ordered;
+		private final IProgressMonitor monitor;
+
+		/*
+		 * Ordered results are taken from the head of the pending list;
+		 * unordered results are taken from the completion service as they
+		 * complete.
+		 */
+		private final LinkedList<Future<Result>> pending = new LinkedList<Future<Result>>();
+		private final CompletionService<Result> completed = new ExecutorCompletionService<Result>(executor);
+		private int inFlight = 0;
+		private int index = 0;
+
+		ResultIterator(Iterator<SudokuBoard> boards, boolean ordered, IProgressMonitor monitor) {
+			this.boards = boards;
+			this.ordered = ordered;
+			this.monitor = monitor;
+		}
+
+		public boolean hasNext() {
+			fill();
+			return inFlight > 0;
+		}
+
+		public Result next() {
+			fill();
+			if (inFlight == 0) throw new NoSuchElementException();
+			try {
+				Future<Result> future = ordered ? pending.removeFirst() : completed.take();
+				inFlight--;
+				return future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new NoSuchElementException();
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		private void fill() {
+			while (inFlight < parallelism * BOARDS_PER_THREAD && !monitor.isCanceled() && boards.hasNext()) {
+				final int boardIndex = index++;
+				final SudokuBoard board = boards.next();
+				Callable<Result> task = new Callable<Result>() {
+					public Result call() {
+						return solve(boardIndex, board, monitor);
+					}
+				};
+				if (ordered) pending.add(executor.submit(task));
+				else completed.submit(task);
+				inFlight++;
+			}
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.solvers;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+
+/**
+ * Instances of this class record the steps a solver takes: each value that
+ * it places in a cell and each cell that it clears when it backtracks. The
+ * trace starts from the state of the board that was being solved, so it can
+ * be replayed later, at any rate, to show how the solver got to its
+ * solution (see {@link #apply(SudokuBoard, int)}).
+ * <p>
+ * Each step is packed into a single <code>int</code> (see
+ * {@link #getType(int)}, {@link #getRow(int)}, {@link #getColumn(int)} and
+ * {@link #getValue(int)}) and the steps are kept in a growable array, so
+ * recording does not slow a solver down noticeably. Traces can be saved and
+ * loaded with {@link #write(OutputStream)} and {@link #read(InputStream)}.
+ * Instances are not thread safe.
+ */
+public class SolverTrace {
+	/**
+	 * The type of a step that places a value in a cell.
+	 */
+	public static final int PLACE = 0;
+
+	/**
+	 * The type of a step that clears a cell.
+	 */
+	public static final int REMOVE = 1;
+
+	private static final int VERSION = 1;
+
+	private final int[] start = new int[81];
+	private int[] steps = new int[256];
+	private int size = 0;
+
+	/**
+	 * This constructor creates an empty trace that starts from an empty
+	 * board.
+	 */
+	public SolverTrace() {
+	}
+
+	/**
+	 * This constructor creates an empty trace that starts from the current
+	 * state of the board.
+	 */
+	public SolverTrace(SudokuBoard board) {
+		for (int index = 0; index < 81; index++) {
+			start[index] = board.getValue(index / 9, index % 9);
+		}
+	}
+
+	public void place(int row, int column, int value) {
+		add((row << 12) | (column << 8) | (value << 4) | PLACE);
+	}
+
+	public void remove(int row, int column) {
+		add((row << 12) | (column << 8) | REMOVE);
+	}
+
+	private void add(int step) {
+		if (size == steps.length) {
+			int[] grown = new int[steps.length * 2];
+			System.arraycopy(steps, 0, grown, 0, size);
+			steps = grown;
+		}
+		steps[size++] = step;
+	}
+
+	/**
+	 * This method answers the number of steps in the trace.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * This method answers the packed step at the index.
+	 */
+	public int get(int index) {
+		if (index >= size) throw new IndexOutOfBoundsException();
+		return steps[index];
+	}
+
+	public static int getType(int step) {
+		return step & 0xf;
+	}
+
+	public static int getRow(int step) {
+		return (step >> 12) & 0xf;
+	}
+
+	public static int getColumn(int step) {
+		return (step >> 8) & 0xf;
+	}
+
+	/**
+	 * This method answers the value placed by the step, or 0 if the step
+	 * clears its cell.
+	 */
+	public static int getValue(int step) {
+		return (step >> 4) & 0xf;
+	}
+
+	/**
+	 * This method answers the value of the cell before the first step.
+	 */
+	public int getStartValue(int row, int column) {
+		return start[row * 9 + column];
+	}
+
+	/**
+	 * This method sets the board's cells to their values before the first
+	 * step.
+	 */
+	public void reset(SudokuBoard board) {
+		for (Cell cell : board.getCells()) {
+			int value = getStartValue(cell.row, cell.column);
+			if (cell.getValue() != value) cell.setValue(value);
+		}
+	}
+
+	/**
+	 * This method applies the step at the index to the board.
+	 */
+	public void apply(SudokuBoard board, int index) {
+		int step = get(index);
+		board.getCell(getRow(step), getColumn(step)).setValue(getValue(step));
+	}
+
+	/**
+	 * This method writes the trace to the stream: a version number, the
+	 * 81 starting values, the number of steps and then the packed steps.
+	 */
+	public void write(OutputStream stream) throws IOException {
+		DataOutputStream output = new DataOutputStream(stream);
+		output.writeInt(VERSION);
+		for (int value : start) {
+			output.writeByte(value);
+		}
+		output.writeInt(size);
+		for (int index = 0; index < size; index++) {
+			output.writeInt(steps[index]);
+		}
+		output.flush();
+	}
+
+	/**
+	 * This method reads a trace that was written by
+	 * {@link #write(OutputStream)}. A stream that is not a complete trace
+	 * causes an {@link IOException}.
+	 */
+	public static SolverTrace read(InputStream stream) throws IOException {
+		DataInputStream input = new DataInputStream(stream);
+		if (input.readInt() != VERSION) throw new IOException("Unsupported solver trace version");
+		SolverTrace trace = new SolverTrace();
+		for (int index = 0; index < 81; index++) {
+			trace.start[index] = input.readByte();
+		}
+		int size = input.readInt();
+		if (size < 0) throw new IOException("Invalid solver trace size");
+		// the steps array grows as they are read, so a corrupt size runs out of input rather than memory
+		for (int index = 0; index < size; index++) {
+			trace.add(input.readInt());
+		}
+		return trace;
+	}
+}
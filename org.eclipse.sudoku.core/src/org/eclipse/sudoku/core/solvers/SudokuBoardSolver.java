@@ -16,4 +16,19 @@ import org.eclipse.sudoku.core.models.SudokuBoard;
 
 public interface SudokuBoardSolver {
 	void solve(SudokuBoard board, IProgressMonitor monitor) throws CannotSolveSudokuBoardException;
+
+	/**
+	 * This method counts the ways that the empty cells of the board can be
+	 * filled in, stopping as soon as <code>limit</code> solutions have been
+	 * found. The board is not changed. An invalid board has no solutions.
+	 * 
+	 * @return the number of solutions found, no more than <code>limit</code>.
+	 */
+	int countSolutions(SudokuBoard board, int limit);
+
+	/**
+	 * This method answers whether the board has exactly one solution. This
+	 * is equivalent to <code>countSolutions(board, 2) == 1</code>.
+	 */
+	boolean isUnique(SudokuBoard board);
 }
@@ -0,0 +1,25 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.solvers;
+
+import org.eclipse.sudoku.core.exceptions.SudokuBoardSolverUnavailableException;
+
+/**
+ * Implementors of this interface create {@link SudokuBoardSolver} instances.
+ * Solvers are generally not thread safe, so code that solves on more than
+ * one thread (e.g. {@link BatchSolver}) asks for one solver per thread.
+ */
+public interface SudokuBoardSolverProvider {
+	/**
+	 * This method answers a new solver instance.
+	 */
+	SudokuBoardSolver createSolver() throws SudokuBoardSolverUnavailableException;
+}
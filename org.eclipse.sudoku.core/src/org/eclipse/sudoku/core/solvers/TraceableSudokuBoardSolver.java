@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.solvers;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+
+/**
+ * Solvers implement this interface to record the steps they take in a
+ * {@link SolverTrace} as they solve. A solver that does not implement it
+ * can still be traced (see
+ * {@link org.eclipse.sudoku.core.internal.Solver#trace(SudokuBoard, IProgressMonitor)}),
+ * but only the values that it sets on the board are recorded.
+ */
+public interface TraceableSudokuBoardSolver extends SudokuBoardSolver {
+	/**
+	 * This method solves the board as
+	 * {@link SudokuBoardSolver#solve(SudokuBoard, IProgressMonitor)} does,
+	 * adding each value that is placed or removed to the trace. Replaying
+	 * the trace from the starting state of the board leaves the board in
+	 * its final state.
+	 */
+	void solve(SudokuBoard board, IProgressMonitor monitor, SolverTrace trace) throws CannotSolveSudokuBoardException;
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.core.util;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fast {@link Random} based on the SplitMix64 generator. It is not
+ * synchronized, so each thread should have its own instance; this avoids
+ * the contention on the shared state of a {@link Random} that many threads
+ * use at once.
+ * <p>
+ * Instances created with the same seed answer the same sequence. Use
+ * {@link #getSeed(long, long)} to derive an independent seed for each of a
+ * series of objects (e.g. the <code>n</code>th puzzle of a run) from a
+ * single seed, and {@link #split()} to hand a generator of its own to
+ * another thread.
+ */
+public class SplitMixRandom extends Random {
+	private static final long serialVersionUID = 1L;
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/*
+	 * Seeds for instances created without one.
+	 */
+	private static final AtomicLong SEEDS = new AtomicLong(System.currentTimeMillis() ^ System.nanoTime());
+
+	/*
+	 * Not initialized here: the superclass constructor sets it through
+	 * setSeed(long), which runs before field initializers.
+	 */
+	private long state;
+
+	/**
+	 * This constructor creates a generator with a seed that is very
+	 * likely to differ from that of any other instance.
+	 */
+	public SplitMixRandom() {
+		this(mix(SEEDS.addAndGet(GOLDEN_GAMMA)) ^ System.nanoTime());
+	}
+
+	public SplitMixRandom(long seed) {
+		super(seed);
+	}
+
+	/**
+	 * This method answers the seed of the <code>index</code>th object of a
+	 * series whose seed is <code>seed</code>.
+	 */
+	public static long getSeed(long seed, long index) {
+		return mix(seed + mix(index + 1) * GOLDEN_GAMMA);
+	}
+
+	@Override
+	public void setSeed(long seed) {
+		super.setSeed(seed);
+		state = seed;
+	}
+
+	/**
+	 * This method answers a new generator whose sequence is independent of
+	 * this one's.
+	 */
+	public SplitMixRandom split() {
+		return new SplitMixRandom(nextLong());
+	}
+
+	@Override
+	protected int next(int bits) {
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return (int) (nextLong() >>> 32);
+	}
+
+	@Override
+	public long nextLong() {
+		state += GOLDEN_GAMMA;
+		return mix(state);
+	}
+
+	/*
+	 * The SplitMix64 finalizer.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
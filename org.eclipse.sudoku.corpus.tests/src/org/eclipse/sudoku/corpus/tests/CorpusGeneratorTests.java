@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.corpus.tests;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotCreateSudokuBoardException;
+import org.eclipse.sudoku.core.factories.SeedableSudokuBoardFactory;
+import org.eclipse.sudoku.core.factories.SudokuBoardFactory;
+import org.eclipse.sudoku.core.models.PackedSudokuBoard;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.models.SudokuGame;
+import org.eclipse.sudoku.core.solvers.SudokuBoardSolver;
+import org.eclipse.sudoku.core.solvers.SudokuBoardSolverProvider;
+import org.eclipse.sudoku.corpus.CorpusGenerator;
+
+public class CorpusGeneratorTests extends TestCase {
+	final AtomicInteger created = new AtomicInteger();
+
+	/*
+	 * A factory that answers one of <code>distinct</code> boards in turn,
+	 * with the board's number written in the givens of the first row.
+	 */
+	SudokuBoardFactory createFactory(final int distinct) {
+		return new SudokuBoardFactory() {
+			public SudokuBoard createNewBoard() {
+				int number = created.getAndIncrement() % distinct;
+				PackedSudokuBoard board = new PackedSudokuBoard();
+				for (int column = 0; column < 9 && number > 0; column++) {
+					board.setValue(0, column, number % 9 + 1);
+					board.makeGiven(0, column);
+					number /= 9;
+				}
+				return board.toSudokuBoard();
+			}
+		};
+	}
+
+	/*
+	 * A provider of solvers that consider a board unique if its first cell
+	 * holds an odd value.
+	 */
+	final SudokuBoardSolverProvider provider = new SudokuBoardSolverProvider() {
+		public SudokuBoardSolver createSolver() {
+			return new SudokuBoardSolver() {
+				public void solve(SudokuBoard board, IProgressMonitor monitor) {
+				}
+
+				public int countSolutions(SudokuBoard board, int limit) {
+					return isUnique(board) ? 1 : 2;
+				}
+
+				public boolean isUnique(SudokuBoard board) {
+					return board.getValue(0, 0) % 2 == 1;
+				}
+			};
+		}
+	};
+
+	public void testGeneratesDistinctPuzzles() throws Exception {
+		StringWriter writer = new StringWriter();
+		CorpusGenerator generator = new CorpusGenerator(createFactory(Integer.MAX_VALUE), null, 4);
+		assertEquals(1000, generator.generate(1000, writer, new NullProgressMonitor()));
+		String[] lines = writer.toString().split("\n");
+		assertEquals(1000, lines.length);
+		Set<String> distinct = new HashSet<String>();
+		for (String line : lines) {
+			assertTrue(distinct.add(line));
+			SudokuBoard board = new SudokuGame(line).getBoard();
+			assertEquals(line, SudokuGame.toStorageString(board));
+		}
+	}
+
+	public void testDiscardsDuplicates() throws Exception {
+		StringWriter writer = new StringWriter();
+		CorpusGenerator generator = new CorpusGenerator(createFactory(10), null, 2);
+		assertEquals(10, generator.generate(20, writer, new NullProgressMonitor()));
+		assertEquals(10, writer.toString().split("\n").length);
+		assertTrue(generator.getDuplicateCount() > 0);
+	}
+
+	public void testVerifiesUniqueness() throws Exception {
+		StringWriter writer = new StringWriter();
+		CorpusGenerator generator = new CorpusGenerator(createFactory(Integer.MAX_VALUE), provider, 2);
+		assertEquals(100, generator.generate(100, writer, new NullProgressMonitor()));
+		for (String line : writer.toString().split("\n")) {
+			assertEquals(1, new SudokuGame(line).getBoard().getValue(0, 0) % 2);
+		}
+		assertTrue(generator.getRejectedCount() > 0);
+	}
+
+	/*
+	 * A factory that answers one of 729 boards for each seed. It takes a
+	 * time that depends on the seed, so that threads finish the boards in
+	 * a different order than they start them.
+	 */
+	final SeedableSudokuBoardFactory seededFactory = new SeedableSudokuBoardFactory() {
+		public SudokuBoard createNewBoard() {
+			throw new IllegalStateException();
+		}
+
+		public SudokuBoard createNewBoard(long seed) {
+			try {
+				Thread.sleep(seed & 3);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			PackedSudokuBoard board = new PackedSudokuBoard();
+			board.setValue(0, 0, (int) ((seed >>> 1) % 9) + 1);
+			board.setValue(1, 1, (int) ((seed >>> 5) % 9) + 1);
+			board.setValue(2, 2, (int) ((seed >>> 9) % 9) + 1);
+			return board.toSudokuBoard();
+		}
+	};
+
+	public void testSeededRunsAreRepeatable() throws Exception {
+		List<String> first = generateSeeded(null, 42, 1);
+		assertEquals(50, new HashSet<String>(first).size());
+		assertEquals(first, generateSeeded(null, 42, 1));
+		assertFalse(first.equals(generateSeeded(null, 43, 1)));
+	}
+
+	/*
+	 * The same puzzles are written in the same order whatever the number of
+	 * threads, also when some are discarded as duplicates or as not unique.
+	 */
+	public void testSeededRunsDoNotDependOnThreads() throws Exception {
+		List<String> first = generateSeeded(provider, 42, 1);
+		assertEquals(50, first.size());
+		assertEquals(first, generateSeeded(provider, 42, 4));
+		assertEquals(first, generateSeeded(provider, 42, 4));
+		assertEquals(first, generateSeeded(provider, 42, 3));
+	}
+
+	public void testSeedRequiresSeedableFactory() throws Exception {
+		CorpusGenerator generator = new CorpusGenerator(createFactory(10), null, 1);
+		generator.setSeed(42);
+		try {
+			generator.generate(10, new StringWriter(), new NullProgressMonitor());
+			fail();
+		} catch (CannotCreateSudokuBoardException e) {
+			// Expected.
+		}
+	}
+
+	private List<String> generateSeeded(SudokuBoardSolverProvider provider, long seed, int threads) throws Exception {
+		StringWriter writer = new StringWriter();
+		CorpusGenerator generator = new CorpusGenerator(seededFactory, provider, threads);
+		generator.setSeed(seed);
+		assertEquals(50, generator.generate(50, writer, new NullProgressMonitor()));
+		return Arrays.asList(writer.toString().split("\n"));
+	}
+
+	public void testFactoryFailureIsReported() throws Exception {
+		CorpusGenerator generator = new CorpusGenerator(new SudokuBoardFactory() {
+			public SudokuBoard createNewBoard() throws CannotCreateSudokuBoardException {
+				throw new CannotCreateSudokuBoardException();
+			}
+		}, null, 2);
+		try {
+			generator.generate(10, new StringWriter(), new NullProgressMonitor());
+			fail();
+		} catch (CannotCreateSudokuBoardException e) {
+			// Expected.
+		}
+	}
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.corpus;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.eclipse.core.runtime.IPlatformRunnable;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotCreateSudokuBoardException;
+import org.eclipse.sudoku.core.exceptions.SudokuBoardFactoryUnavailableException;
+import org.eclipse.sudoku.core.factories.SeedableSudokuBoardFactory;
+import org.eclipse.sudoku.core.internal.Factory;
+import org.eclipse.sudoku.core.internal.Solver;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.models.SudokuGame;
+
+/**
+ * This headless application generates a corpus of puzzles with one of the
+ * contributed factories (see {@link CorpusGenerator}). It understands the
+ * following arguments (others are ignored):
+ * <ul>
+ * <li><code>-count n</code> the number of puzzles (default 1000)</li>
+ * <li><code>-factory name</code> the factory to use (default the first)</li>
+ * <li><code>-threads n</code> the number of threads (default one per
+ * processor)</li>
+ * <li><code>-verify [name]</code> keep only puzzles with a unique solution,
+ * checked with the named solver (default the first)</li>
+ * <li><code>-output file</code> the file to write (default standard
+ * output)</li>
+ * <li><code>-seed n</code> create the puzzles from seeds derived from
+ * <code>n</code>, so that the run can be repeated</li>
+ * </ul>
+ */
+public class CorpusApplication implements IPlatformRunnable {
+	private static final Integer EXIT_USAGE = Integer.valueOf(1);
+
+	private long count = 1000;
+	private String factoryName;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private boolean verify;
+	private String solverName;
+	private String output;
+	private Long seed;
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.core.runtime.IPlatformRunnable#run(java.lang.Object)
+	 */
+	public Object run(Object args) throws Exception {
+		if (!parse(args instanceof String[] ? (String[]) args : new String[0])) {
+			System.err.println("Usage: [-count n] [-factory name] [-threads n] [-verify [solver]] [-output file] [-seed n]");
+			return EXIT_USAGE;
+		}
+		SudokuGame game = new SudokuGame("");
+		try {
+			final Factory factory = findFactory(game, factoryName);
+			if (factory == null) {
+				System.err.println("No factory named " + factoryName);
+				return EXIT_USAGE;
+			}
+			Solver solver = null;
+			if (verify) {
+				solver = findSolver(game, solverName);
+				if (solver == null) {
+					System.err.println("No solver named " + solverName);
+					return EXIT_USAGE;
+				}
+			}
+			CorpusGenerator generator = new CorpusGenerator(new SeedableSudokuBoardFactory() {
+				public SudokuBoard createNewBoard() throws CannotCreateSudokuBoardException {
+					try {
+						return factory.createNewBoard();
+					} catch (SudokuBoardFactoryUnavailableException e) {
+						throw new CannotCreateSudokuBoardException();
+					}
+				}
+
+				public SudokuBoard createNewBoard(long seed) throws CannotCreateSudokuBoardException {
+					try {
+						return factory.createNewBoard(seed);
+					} catch (SudokuBoardFactoryUnavailableException e) {
+						throw new CannotCreateSudokuBoardException();
+					}
+				}
+			}, solver, threads);
+			if (seed != null) generator.setSeed(seed.longValue());
+			long start = System.currentTimeMillis();
+			long written;
+			OutputStream stream = output == null ? System.out : new FileOutputStream(output);
+			Writer writer = new BufferedWriter(new OutputStreamWriter(stream, "US-ASCII"), 1 << 16);
+			try {
+				written = generator.generate(count, writer, new NullProgressMonitor());
+			} finally {
+				if (output == null) writer.flush();
+				else writer.close();
+			}
+			long elapsed = System.currentTimeMillis() - start;
+			System.err.println("Wrote " + written + " puzzles from " + factory.getName() + " in " + elapsed + " ms (" + generator.getDuplicateCount() + " duplicates, " + generator.getRejectedCount() + " without a unique solution).");
+		} finally {
+			game.dispose();
+		}
+		return EXIT_OK;
+	}
+
+	private boolean parse(String[] args) {
+		try {
+			for (int index = 0; index < args.length; index++) {
+				String arg = args[index];
+				if ("-count".equals(arg)) count = Long.parseLong(args[++index]);
+				else if ("-factory".equals(arg)) factoryName = args[++index];
+				else if ("-threads".equals(arg)) threads = Integer.parseInt(args[++index]);
+				else if ("-output".equals(arg)) output = args[++index];
+				else if ("-seed".equals(arg)) seed = Long.valueOf(args[++index]);
+				else if ("-verify".equals(arg)) {
+					verify = true;
+					if (index + 1 < args.length && !args[index + 1].startsWith("-")) solverName = args[++index];
+				}
+				// Ignore anything else; the launcher may pass arguments of its own.
+			}
+		} catch (ArrayIndexOutOfBoundsException e) {
+			return false;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+		return count > 0 && threads > 0;
+	}
+
+	/*
+	 * Answers the factory with the name, or the first one if the name is
+	 * null.
+	 */
+	private Factory findFactory(SudokuGame game, String name) {
+		for (Factory factory : game.getFactories()) {
+			if (name == null || name.equals(factory.getName())) return factory;
+		}
+		return null;
+	}
+
+	private Solver findSolver(SudokuGame game, String name) {
+		for (Solver solver : game.getSolvers()) {
+			if (name == null || name.equals(solver.getName())) return solver;
+		}
+		return null;
+	}
+}
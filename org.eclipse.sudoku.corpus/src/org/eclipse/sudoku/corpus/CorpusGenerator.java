@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.corpus;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotCreateSudokuBoardException;
+import org.eclipse.sudoku.core.exceptions.SudokuBoardSolverUnavailableException;
+import org.eclipse.sudoku.core.factories.SeedableSudokuBoardFactory;
+import org.eclipse.sudoku.core.factories.SudokuBoardFactory;
+import org.eclipse.sudoku.core.models.BoardFingerprint;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.models.SudokuGame;
+import org.eclipse.sudoku.core.solvers.SudokuBoardSolver;
+import org.eclipse.sudoku.core.solvers.SudokuBoardSolverProvider;
+import org.eclipse.sudoku.core.util.SplitMixRandom;
+
+/**
+ * This class generates a corpus of distinct puzzles with a factory, using
+ * several threads, and writes them one per line in the form answered by
+ * {@link SudokuGame#toStorageString(SudokuBoard)}. Puzzles are told apart
+ * by their {@link BoardFingerprint}; if a solver provider is given, only
+ * puzzles with a unique solution are kept.
+ * <p>
+ * The puzzles are numbered in the order in which they are asked for, and
+ * are kept or discarded in that order, whichever thread finishes first. The
+ * threads work at most a fixed number of puzzles ahead of the next one to
+ * be written.
+ * <p>
+ * The factory is called from all of the threads at once, so it must be
+ * safe to call concurrently. Each thread gets its own solver instance from
+ * the provider. The fingerprints of every puzzle seen are kept in memory
+ * for the duration of a run.
+ */
+public class CorpusGenerator {
+	/*
+	 * A run gives up after this many duplicates in a row; a factory with a
+	 * small, fixed set of puzzles would otherwise never finish.
+	 */
+	private static final int MAXIMUM_CONSECUTIVE_DUPLICATES = 1000;
+
+	/*
+	 * The number of generated puzzles that may be waiting to be written for
+	 * each thread.
+	 */
+	private static final int LINES_PER_THREAD = 64;
+
+	/*
+	 * A puzzle that a thread has created and checked, waiting for the
+	 * puzzles asked for before it to be kept or discarded.
+	 */
+	private static class Draw {
+		final long number;
+		final SudokuBoard board;
+		final boolean unique;
+
+		Draw(long number, SudokuBoard board, boolean unique) {
+			this.number = number;
+			this.board = board;
+			this.unique = unique;
+		}
+	}
+
+	private final SudokuBoardFactory factory;
+	private final SudokuBoardSolverProvider provider;
+	private final int threads;
+
+	private final ThreadLocal<SudokuBoardSolver> solvers = new ThreadLocal<SudokuBoardSolver>();
+	private final AtomicLong duplicates = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private boolean seeded;
+	private long seed;
+
+	/**
+	 * This constructor creates a generator that calls the factory from
+	 * <code>threads</code> threads. If the provider is not
+	 * <code>null</code>, its solvers are used to discard puzzles that do not
+	 * have a unique solution.
+	 */
+	public CorpusGenerator(SudokuBoardFactory factory, SudokuBoardSolverProvider provider, int threads) {
+		this.factory = factory;
+		this.provider = provider;
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * This method makes the generator create the <code>n</code>th puzzle
+	 * that it asks the factory for from the seed derived from
+	 * <code>seed</code> and <code>n</code> (see
+	 * {@link SplitMixRandom#getSeed(long, long)}); the factory must be a
+	 * {@link SeedableSudokuBoardFactory}. Runs with the same seed and count
+	 * then write the same puzzles in the same order, whatever the number of
+	 * threads.
+	 */
+	public void setSeed(long seed) {
+		this.seeded = true;
+		this.seed = seed;
+	}
+
+	/**
+	 * This method generates up to <code>count</code> distinct puzzles and
+	 * writes them to the writer, one per line, in the order in which they
+	 * were asked for. It answers the number written, which is less than
+	 * <code>count</code> if the monitor is cancelled or if the factory
+	 * stops answering new puzzles. The writer is flushed but not closed.
+	 * 
+	 * @throws CannotCreateSudokuBoardException
+	 *             if the factory fails before <code>count</code> puzzles
+	 *             are written, or if a seed is set and the factory cannot
+	 *             create puzzles from seeds.
+	 * @throws SudokuBoardSolverUnavailableException
+	 *             if a solver cannot be created.
+	 */
+	public long generate(final long count, Writer writer, IProgressMonitor monitor) throws IOException, CannotCreateSudokuBoardException, SudokuBoardSolverUnavailableException {
+		if (seeded && !(factory instanceof SeedableSudokuBoardFactory)) throw new CannotCreateSudokuBoardException();
+		duplicates.set(0);
+		rejected.set(0);
+		final AtomicLong requested = new AtomicLong();
+		final ConcurrentHashMap<BoardFingerprint, Boolean> seen = new ConcurrentHashMap<BoardFingerprint, Boolean>();
+		final BlockingQueue<Draw> draws = new ArrayBlockingQueue<Draw>(threads * LINES_PER_THREAD);
+		final Semaphore ahead = new Semaphore(threads * LINES_PER_THREAD);
+		final AtomicBoolean stopped = new AtomicBoolean();
+
+		monitor.beginTask("Generating puzzles", count > Integer.MAX_VALUE ? IProgressMonitor.UNKNOWN : (int) count);
+		ExecutorService executor = createExecutor(threads);
+		List<Future<Object>> futures = new ArrayList<Future<Object>>();
+		long written = 0;
+		try {
+			for (int thread = 0; thread < threads; thread++) {
+				futures.add(executor.submit(new Callable<Object>() {
+					public Object call() throws Exception {
+						try {
+							while (!stopped.get()) {
+								if (!ahead.tryAcquire(100, TimeUnit.MILLISECONDS)) continue;
+								long number = requested.getAndIncrement();
+								SudokuBoard board;
+								if (seeded) board = ((SeedableSudokuBoardFactory) factory).createNewBoard(SplitMixRandom.getSeed(seed, number));
+								else board = factory.createNewBoard();
+								// A puzzle that has been seen is a duplicate, so it need not be solved.
+								boolean unique = provider == null || seen.containsKey(board.getFingerprint()) || getSolver().isUnique(board);
+								draws.put(new Draw(number, board, unique));
+							}
+						} finally {
+							// The puzzles after a failure are not written, so the other threads stop too.
+							stopped.set(true);
+						}
+						return null;
+					}
+				}));
+			}
+			Map<Long, Draw> early = new HashMap<Long, Draw>();
+			long next = 0;
+			int consecutiveDuplicates = 0;
+			while (written < count && !monitor.isCanceled() && consecutiveDuplicates < MAXIMUM_CONSECUTIVE_DUPLICATES) {
+				Draw draw = early.remove(Long.valueOf(next));
+				if (draw == null) {
+					draw = draws.poll(100, TimeUnit.MILLISECONDS);
+					if (draw == null) {
+						if (isDone(futures) && draws.isEmpty()) break;
+						continue;
+					}
+					if (draw.number != next) {
+						early.put(Long.valueOf(draw.number), draw);
+						continue;
+					}
+				}
+				next++;
+				ahead.release();
+				if (seen.putIfAbsent(draw.board.getFingerprint(), Boolean.TRUE) != null) {
+					duplicates.incrementAndGet();
+					consecutiveDuplicates++;
+					continue;
+				}
+				consecutiveDuplicates = 0;
+				if (!draw.unique) {
+					rejected.incrementAndGet();
+					continue;
+				}
+				writer.write(SudokuGame.toStorageString(draw.board));
+				writer.write('\n');
+				written++;
+				monitor.worked(1);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			stopped.set(true);
+			executor.shutdownNow();
+			monitor.done();
+		}
+		writer.flush();
+		if (written < count && !monitor.isCanceled()) rethrowFailure(futures);
+		return written;
+	}
+
+	/**
+	 * This method answers the number of duplicate puzzles that were
+	 * discarded by the last run.
+	 */
+	public long getDuplicateCount() {
+		return duplicates.get();
+	}
+
+	/**
+	 * This method answers the number of puzzles that were discarded by the
+	 * last run because they do not have a unique solution.
+	 */
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+
+	private SudokuBoardSolver getSolver() throws SudokuBoardSolverUnavailableException {
+		SudokuBoardSolver solver = solvers.get();
+		if (solver == null) {
+			solver = provider.createSolver();
+			solvers.set(solver);
+		}
+		return solver;
+	}
+
+	private boolean isDone(List<Future<Object>> futures) {
+		for (Future<Object> future : futures) {
+			if (!future.isDone()) return false;
+		}
+		return true;
+	}
+
+	private void rethrowFailure(List<Future<Object>> futures) throws CannotCreateSudokuBoardException, SudokuBoardSolverUnavailableException {
+		for (Future<Object> future : futures) {
+			if (!future.isDone() || future.isCancelled()) continue;
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof CannotCreateSudokuBoardException) throw (CannotCreateSudokuBoardException) cause;
+				if (cause instanceof SudokuBoardSolverUnavailableException) throw (SudokuBoardSolverUnavailableException) cause;
+				if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+				if (cause instanceof Error) throw (Error) cause;
+			}
+		}
+	}
+
+	private static ExecutorService createExecutor(int threads) {
+		return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Sudoku Corpus Generator " + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+}
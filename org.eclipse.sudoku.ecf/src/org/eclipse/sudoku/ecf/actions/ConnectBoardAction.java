@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.HashMap;
+import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -30,6 +31,7 @@ import org.eclipse.sudoku.core.SudokuCoreActivator;
 import org.eclipse.sudoku.core.listeners.SudokuBoardChangeListener;
 import org.eclipse.sudoku.core.listeners.SudokuBoardStateListener;
 import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.models.CellChange;
 import org.eclipse.sudoku.core.models.SudokuBoard;
 import org.eclipse.sudoku.core.models.SudokuGame;
 import org.eclipse.sudoku.ecf.Activator;
@@ -137,25 +139,7 @@ public class ConnectBoardAction implements IWorkbenchWindowActionDelegate  {
 							Display.getDefault().asyncExec(new Runnable() {
 
 								public void run() {
-									ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
-									ObjectOutputStream objectOut;
-									try {
-										objectOut = new ObjectOutputStream(byteOut);
-										StringBuilder builder = new StringBuilder();
-										for (int row = 0; row < 9; row++) {
-											for (int column = 0; column < 9; column++) {
-												Cell cell = game.getBoard().getCell(row, column);
-												if (cell.isGiven()) builder.append('*');
-												builder.append(cell.getValue());
-											}
-										}
-										objectOut.writeObject(builder);
-										channel.sendMessage(byteOut.toByteArray());
-									} catch (IOException e) {
-										e.printStackTrace();
-									} catch (ECFException e) {
-										e.printStackTrace();
-									}
+									sendBoardState();
 								}
 
 							});
@@ -199,6 +183,21 @@ public class ConnectBoardAction implements IWorkbenchWindowActionDelegate  {
 		}
 	}
 	
+	private void sendBoardState() {
+		ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+		ObjectOutputStream objectOut;
+		try {
+			objectOut = new ObjectOutputStream(byteOut);
+			// The receiver expects a StringBuilder (see SudokuGame#createNewBoard(StringBuilder)).
+			objectOut.writeObject(new StringBuilder(SudokuGame.toStorageString(game.getBoard())));
+			channel.sendMessage(byteOut.toByteArray());
+		} catch (IOException e) {
+			e.printStackTrace();
+		} catch (ECFException e) {
+			e.printStackTrace();
+		}
+	}
+
 	class MySudokuBoardStateListener implements SudokuBoardStateListener {
 		private static final long serialVersionUID = 8569835801531057746L;
 		
@@ -224,8 +223,15 @@ public class ConnectBoardAction implements IWorkbenchWindowActionDelegate  {
 		 * @see org.eclipse.sudoku.core.listeners.SudokuBoardStateListener#boardCleared(org.eclipse.sudoku.core.models.SudokuBoard)
 		 */
 		public void boardCleared(SudokuBoard board) {
-			// TODO Auto-generated method stub
-			
+			sendBoardState();
+		}
+
+		public void cellsChanged(SudokuBoard board, List<CellChange> changes) {
+			sendBoardState();
+		}
+
+		public void boardRestored(SudokuBoard board) {
+			sendBoardState();
 		}
 
 	}
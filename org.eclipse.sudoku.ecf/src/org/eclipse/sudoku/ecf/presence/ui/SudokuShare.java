@@ -16,6 +16,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.List;
 import java.util.StringTokenizer;
 
 import org.eclipse.core.runtime.Assert;
@@ -31,6 +32,7 @@ import org.eclipse.sudoku.core.SudokuCoreActivator;
 import org.eclipse.sudoku.core.listeners.SudokuBoardChangeListener;
 import org.eclipse.sudoku.core.listeners.SudokuBoardStateListener;
 import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.models.CellChange;
 import org.eclipse.sudoku.core.models.SudokuBoard;
 import org.eclipse.sudoku.core.models.SudokuGame;
 import org.eclipse.sudoku.ecf.Activator;
@@ -255,6 +257,15 @@ public class SudokuShare extends AbstractShare {
 		}
 
 		public void boardCleared(SudokuBoard board) {
+			sendSyncGameState();
+		}
+
+		public void cellsChanged(SudokuBoard board, List<CellChange> changes) {
+			sendSyncGameState();
+		}
+
+		public void boardRestored(SudokuBoard board) {
+			sendSyncGameState();
 		}
 	}
 }
@@ -10,12 +10,22 @@
  *******************************************************************************/
 package org.eclipse.sudoku.factory.generator.tests;
 
+import org.eclipse.sudoku.core.factories.PrefetchingBoardPool;
 import org.eclipse.sudoku.core.models.SudokuBoard;
 import org.eclipse.sudoku.factory.generator.SudokuBoardGenerator;
+import org.eclipse.sudoku.factory.generator.SudokuBoardGeneratorFactory;
+import org.eclipse.sudoku.solver.logical.Difficulty;
+import org.eclipse.sudoku.solver.logical.LogicalSolver;
 
 import junit.framework.TestCase;
 
 public class GeneratorFactoryTests extends TestCase {
+	/*
+	 * The graded tests use a fixed seed, so they check the same puzzles
+	 * on every run.
+	 */
+	private static final long SEED = 42;
+
 	public void testDifficulty1() throws Exception {
 		SudokuBoard board = new SudokuBoardGenerator().generate(1);
 		assertEquals(9, board.getNonEmptyCells().size());
@@ -57,4 +67,69 @@ public class GeneratorFactoryTests extends TestCase {
 		assertEquals(81, board.getNonEmptyCells().size());
 		assertTrue(board.isValid());
 	}
+	
+	public void testEasyIsUnique() throws Exception {
+		assertUniqueAndGraded(Difficulty.EASY, true);
+	}
+	
+	public void testMediumIsUnique() throws Exception {
+		assertUniqueAndGraded(Difficulty.MEDIUM, true);
+	}
+	
+	public void testHardIsUnique() throws Exception {
+		assertUniqueAndGraded(Difficulty.HARD, true);
+	}
+	
+	/*
+	 * Expert puzzles are rare enough that the generator may settle for an
+	 * easier one, but it never answers a harder one.
+	 */
+	public void testExpertIsUnique() throws Exception {
+		assertUniqueAndGraded(Difficulty.EXPERT, false);
+	}
+	
+	public void testDiabolicalIsUnique() throws Exception {
+		assertUniqueAndGraded(Difficulty.DIABOLICAL, true);
+	}
+	
+	public void testSeededGenerationIsReproducible() throws Exception {
+		SudokuBoardGenerator first = new SudokuBoardGenerator(42);
+		SudokuBoardGenerator second = new SudokuBoardGenerator(42);
+		for (int count = 0; count < 3; count++) {
+			assertEquals(first.generate(Difficulty.HARD), second.generate(Difficulty.HARD));
+			assertEquals(first.generate(3), second.generate(3));
+		}
+		assertFalse(new SudokuBoardGenerator(42).generate(Difficulty.HARD).equals(new SudokuBoardGenerator(43).generate(Difficulty.HARD)));
+	}
+	
+	/*
+	 * Every instance of the factory fills the same pool, so creating more
+	 * of them does not start more background threads.
+	 */
+	public void testFactoriesSharePool() throws Exception {
+		for (int count = 0; count < 5; count++) {
+			assertTrue(new SudokuBoardGeneratorFactory().createNewBoard().isValid());
+		}
+		int threads = 0;
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().startsWith("Sudoku Board Generator")) threads++;
+		}
+		assertTrue(threads <= Integer.getInteger(PrefetchingBoardPool.THREADS_PROPERTY, 1).intValue());
+	}
+	
+	private void assertUniqueAndGraded(Difficulty difficulty, boolean exact) {
+		SudokuBoardGenerator generator = new SudokuBoardGenerator(SEED);
+		LogicalSolver solver = new LogicalSolver();
+		for (int count = 0; count < 5; count++) {
+			SudokuBoard board = generator.generate(difficulty);
+			assertTrue(board.isValid());
+			assertTrue(solver.isUnique(board));
+			int clues = board.getNonEmptyCells().size();
+			board.clear();
+			assertEquals(clues, board.getNonEmptyCells().size());
+			Difficulty graded = solver.grade(board).getDifficulty();
+			if (exact) assertEquals(difficulty, graded);
+			else assertTrue(graded.compareTo(difficulty) <= 0);
+		}
+	}
 }
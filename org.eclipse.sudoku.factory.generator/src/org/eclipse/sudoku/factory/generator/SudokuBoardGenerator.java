@@ -13,15 +13,49 @@ package org.eclipse.sudoku.factory.generator;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
 import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.models.PackedSudokuBoard;
 import org.eclipse.sudoku.core.models.Row;
 import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.util.SplitMixRandom;
 import org.eclipse.sudoku.solver.backtracking.BacktrackingSolver;
+import org.eclipse.sudoku.solver.bitboard.BitboardEngine;
+import org.eclipse.sudoku.solver.logical.Difficulty;
+import org.eclipse.sudoku.solver.logical.LogicalEngine;
 
+/**
+ * This class generates Sudoku boards. A generator created with a seed
+ * answers the same sequence of boards as any other generator created with
+ * that seed. Instances are not thread safe.
+ */
 public class SudokuBoardGenerator {
+	/*
+	 * The number of puzzles to try when looking for one with the requested
+	 * difficulty before settling for the closest.
+	 */
+	private static final int MAXIMUM_ATTEMPTS = 50;
+
+	private final BitboardEngine uniquenessEngine = new BitboardEngine();
+	private final LogicalEngine gradingEngine = new LogicalEngine();
+	private final Random random;
+	private final BacktrackingSolver solver;
+
+	public SudokuBoardGenerator() {
+		this(new SplitMixRandom());
+	}
+
+	public SudokuBoardGenerator(long seed) {
+		this(new SplitMixRandom(seed));
+	}
+
+	private SudokuBoardGenerator(Random random) {
+		this.random = random;
+		this.solver = new BacktrackingSolver(random.nextLong());
+	}
 
 	public SudokuBoard generate() {
 		return generate(3);
@@ -41,7 +75,7 @@ public class SudokuBoardGenerator {
 		SudokuBoard board = new SudokuBoard();
 		
 		try {
-			new BacktrackingSolver().solve(board, new NullProgressMonitor());
+			solver.solve(board, new NullProgressMonitor());
 		} catch (CannotSolveSudokuBoardException e) {
 			// Shouldn't happen.
 		}
@@ -55,6 +89,78 @@ public class SudokuBoardGenerator {
 		return board;
 	}
 
+	/**
+	 * This method creates a new Sudoku board that has a unique solution and
+	 * that the {@link LogicalEngine} grades at the requested difficulty.
+	 * Starting from a random solved board, clues are removed in random
+	 * order; a clue is put back if removing it would allow a second
+	 * solution or make the puzzle harder than requested. If the resulting
+	 * puzzle is easier than requested, another is tried; after
+	 * {@value #MAXIMUM_ATTEMPTS} attempts, the closest is answered.
+	 * 
+	 * @return an instance of {@link SudokuBoard} whose non-empty cells are
+	 *         given.
+	 */
+	public SudokuBoard generate(Difficulty difficulty) {
+		int[] best = null;
+		int bestDistance = Integer.MAX_VALUE;
+		for (int attempt = 0; attempt < MAXIMUM_ATTEMPTS && bestDistance > 0; attempt++) {
+			int[] puzzle = createPuzzle(difficulty);
+			int distance = difficulty.ordinal() - getDifficulty(puzzle).ordinal();
+			if (distance < bestDistance) {
+				best = puzzle;
+				bestDistance = distance;
+			}
+		}
+		PackedSudokuBoard board = new PackedSudokuBoard();
+		for (int index = 0; index < 81; index++) {
+			if (best[index] == 0) continue;
+			board.setValue(index / 9, index % 9, best[index]);
+			board.makeGiven(index / 9, index % 9);
+		}
+		return board.toSudokuBoard();
+	}
+
+	private int[] createPuzzle(Difficulty difficulty) {
+		SudokuBoard board = new SudokuBoard();
+		try {
+			solver.solve(board, new NullProgressMonitor());
+		} catch (CannotSolveSudokuBoardException e) {
+			// Shouldn't happen.
+		}
+		int[] puzzle = new int[81];
+		List<Integer> cells = new ArrayList<Integer>();
+		for (int index = 0; index < 81; index++) {
+			puzzle[index] = board.getValue(index / 9, index % 9);
+			cells.add(index);
+		}
+		Collections.shuffle(cells, random);
+		for (int cell : cells) {
+			int value = puzzle[cell];
+			puzzle[cell] = 0;
+			if (!isStillUnique(puzzle, cell, value) || getDifficulty(puzzle).compareTo(difficulty) > 0) {
+				puzzle[cell] = value;
+			}
+		}
+		return puzzle;
+	}
+
+	/*
+	 * The puzzle had a unique solution with the value in the cell before
+	 * the value was removed, so it still has a unique solution if there is
+	 * no solution at all with some other value in the cell. Looking for one
+	 * solution with the value ruled out is much cheaper than counting the
+	 * solutions from scratch.
+	 */
+	private boolean isStillUnique(int[] puzzle, int cell, int value) {
+		return !(uniquenessEngine.load(puzzle) && uniquenessEngine.eliminate(cell, value) && uniquenessEngine.solve());
+	}
+
+	private Difficulty getDifficulty(int[] puzzle) {
+		gradingEngine.load(puzzle);
+		return gradingEngine.grade(null).getDifficulty();
+	}
+
 	private void makeGivenCells(int difficulty, SudokuBoard board) {
 //		int totalStaticCells = difficulty * 9;
 //		int[] staticCellsInRows = new int[9];
@@ -81,7 +187,7 @@ public class SudokuBoardGenerator {
 		rows.addAll(board.getRows());
 		
 		// Randomize the rows.
-		Collections.shuffle(rows);
+		Collections.shuffle(rows, random);
 		for (int index = 0; index < 9; index++) {
 			Row row = rows.get(index);
 			// Get the cells for the row. Make the nth
@@ -91,7 +197,7 @@ public class SudokuBoardGenerator {
 
 			// Shuffle the cells
 			// Mark additional (difficulty-1) cells as static
-			Collections.shuffle(cells);
+			Collections.shuffle(cells, random);
 			for (int count = 1; count < difficulty; count++) {
 				cells.remove(0).makeGiven();
 			}
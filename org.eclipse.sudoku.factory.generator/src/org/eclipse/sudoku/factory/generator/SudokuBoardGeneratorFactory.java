@@ -10,11 +10,60 @@
  *******************************************************************************/
 package org.eclipse.sudoku.factory.generator;
 
-import org.eclipse.sudoku.core.factories.SudokuBoardFactory;
+import org.eclipse.sudoku.core.exceptions.CannotCreateSudokuBoardException;
+import org.eclipse.sudoku.core.factories.PrefetchingBoardPool;
+import org.eclipse.sudoku.core.factories.SeedableSudokuBoardFactory;
+import org.eclipse.sudoku.core.factories.SudokuBoardSource;
 import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.solver.logical.Difficulty;
 
-public class SudokuBoardGeneratorFactory implements SudokuBoardFactory {
-	public SudokuBoard createNewBoard() {
-		return new SudokuBoardGenerator().generate();
+/**
+ * This factory answers boards of each difficulty from a
+ * {@link PrefetchingBoardPool}, so that a new board is usually available
+ * immediately. The pool is filled in the background with boards from
+ * {@link SudokuBoardGenerator#generate(Difficulty)}. Boards created from a
+ * seed are generated on the calling thread.
+ * <p>
+ * The pool is shared by all instances of the factory, so instances that
+ * are created for other threads, or discarded and created again, reuse
+ * its boards and its background thread instead of starting their own.
+ */
+public class SudokuBoardGeneratorFactory implements SeedableSudokuBoardFactory {
+	private static final Difficulty DEFAULT_DIFFICULTY = Difficulty.MEDIUM;
+
+	/*
+	 * Generators are not thread safe, so each thread that creates boards
+	 * gets its own.
+	 */
+	private static final ThreadLocal<SudokuBoardGenerator> GENERATORS = new ThreadLocal<SudokuBoardGenerator>() {
+		protected SudokuBoardGenerator initialValue() {
+			return new SudokuBoardGenerator();
+		}
+	};
+
+	private static final PrefetchingBoardPool<Difficulty> POOL = new PrefetchingBoardPool<Difficulty>(new SudokuBoardSource<Difficulty>() {
+		public SudokuBoard createBoard(Difficulty difficulty) {
+			return GENERATORS.get().generate(difficulty);
+		}
+	}, "Sudoku Board Generator");
+
+	public SudokuBoardGeneratorFactory() {
+		POOL.prefetch(DEFAULT_DIFFICULTY);
+	}
+
+	public SudokuBoard createNewBoard() throws CannotCreateSudokuBoardException {
+		return createNewBoard(DEFAULT_DIFFICULTY);
+	}
+
+	public SudokuBoard createNewBoard(Difficulty difficulty) throws CannotCreateSudokuBoardException {
+		return POOL.take(difficulty);
+	}
+
+	public SudokuBoard createNewBoard(long seed) {
+		return createNewBoard(DEFAULT_DIFFICULTY, seed);
+	}
+
+	public SudokuBoard createNewBoard(Difficulty difficulty, long seed) {
+		return new SudokuBoardGenerator(seed).generate(difficulty);
 	}
 }
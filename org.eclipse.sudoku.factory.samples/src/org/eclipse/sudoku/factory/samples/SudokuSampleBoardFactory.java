@@ -11,37 +11,40 @@
 package org.eclipse.sudoku.factory.samples;
 
 import java.util.Iterator;
-import java.util.Random;
 
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionPoint;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.sudoku.core.exceptions.CannotCreateSudokuBoardException;
-import org.eclipse.sudoku.core.factories.SudokuBoardFactory;
-import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.factories.SeedableSudokuBoardFactory;
+import org.eclipse.sudoku.core.models.PackedSudokuBoard;
 import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.util.SplitMixRandom;
 
-public class SudokuSampleBoardFactory implements SudokuBoardFactory {
+public class SudokuSampleBoardFactory implements SeedableSudokuBoardFactory {
 
 	public SudokuBoard createNewBoard() throws CannotCreateSudokuBoardException {
+		return createNewBoard(new SplitMixRandom().nextLong());
+	}
+
+	public SudokuBoard createNewBoard(long seed) throws CannotCreateSudokuBoardException {
 		IConfigurationElement[] elements = getExtensionPoint().getConfigurationElements();
 		if (elements.length == 0) throw new CannotCreateSudokuBoardException();
-		IConfigurationElement element = elements[new Random().nextInt(elements.length)];
+		IConfigurationElement element = elements[new SplitMixRandom(seed).nextInt(elements.length)];
 		return createNewBoard(element.getAttribute("data"));
 	}
 
 	private SudokuBoard createNewBoard(String data) {
 		Iterator<Integer> contents = split(data);
-		SudokuBoard board = new SudokuBoard();
+		PackedSudokuBoard board = new PackedSudokuBoard();
 		for (int row=0;row<9;row++) {
 			for (int column=0;column<9;column++) {
 				int value = contents.next();
-				Cell cell = board.getCell(row, column);
-				cell.setValue(value);
-				if (value != 0) cell.makeGiven();
+				board.setValue(row, column, value);
+				if (value != 0) board.makeGiven(row, column);
 			}
 		}
-		return board;
+		return board.toSudokuBoard();
 	}
 
 	private Iterator<Integer> split(final String data) {		
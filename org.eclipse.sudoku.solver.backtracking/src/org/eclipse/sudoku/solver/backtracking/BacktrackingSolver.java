@@ -12,23 +12,65 @@ package org.eclipse.sudoku.solver.backtracking;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
 import org.eclipse.sudoku.core.models.Cell;
 import org.eclipse.sudoku.core.models.SudokuBoard;
-import org.eclipse.sudoku.core.solvers.SudokuBoardSolver;
+import org.eclipse.sudoku.core.solvers.SolverTrace;
+import org.eclipse.sudoku.core.solvers.TraceableSudokuBoardSolver;
+import org.eclipse.sudoku.core.util.SplitMixRandom;
+
+/**
+ * This solver fills in the most constrained empty cell with each of its
+ * possible values in turn, in random order, backing out of dead ends.
+ * Because the order is random, solving an empty board answers a random
+ * solution.
+ * <p>
+ * A solver created with a seed always tries the values in the same order,
+ * so it answers the same solution for the same board; such a solver is not
+ * thread safe. A solver created without a seed can be shared: each thread
+ * draws from a generator of its own.
+ */
+public class BacktrackingSolver implements TraceableSudokuBoardSolver {
+	private static final ThreadLocal<Random> randoms = new ThreadLocal<Random>() {
+		protected Random initialValue() {
+			return new SplitMixRandom();
+		}
+	};
+
+	private final Random random;
+
+	public BacktrackingSolver() {
+		this.random = null;
+	}
+
+	public BacktrackingSolver(long seed) {
+		this.random = new SplitMixRandom(seed);
+	}
 
-public class BacktrackingSolver implements SudokuBoardSolver {
 	public void solve(SudokuBoard board, IProgressMonitor monitor) throws CannotSolveSudokuBoardException {
+		solve(board, monitor, null);
+	}
+
+	public void solve(SudokuBoard board, IProgressMonitor monitor, SolverTrace trace) throws CannotSolveSudokuBoardException {
 		try {
-			doSolve(board, monitor);
+			doSolve(board, monitor, trace);
 		} catch (CannotFindSolutionException e) {
 			throw new CannotSolveSudokuBoardException();
 		}
 	}
 
 	protected void doSolve(SudokuBoard board, IProgressMonitor monitor) throws CannotFindSolutionException {
+		doSolve(board, monitor, null);
+	}
+
+	/**
+	 * This method fills in the board as {@link #doSolve(SudokuBoard, IProgressMonitor)}
+	 * does, recording each value set in the trace (if there is one).
+	 */
+	protected void doSolve(SudokuBoard board, IProgressMonitor monitor, SolverTrace trace) throws CannotFindSolutionException {
 		if (monitor.isCanceled()) return;
 		monitor.worked(1);
 		// If there are no more cells, we're done.
@@ -43,14 +85,15 @@ public class BacktrackingSolver implements SudokuBoardSolver {
 		if (values.isEmpty()) throw new CannotFindSolutionException();
 
 		// Randomize the values.
-		Collections.shuffle(values);
+		Collections.shuffle(values, random == null ? randoms.get() : random);
 		// Iterate through the possible values and try each of them
 		// until one works.
 		for (Integer value : values) {
 			cell.setValue(value);
+			if (trace != null) trace.place(cell.row, cell.column, value);
 			try {
 				// Try to generate the rest of the board
-				doSolve(board, monitor);
+				doSolve(board, monitor, trace);
 				return; // it worked!
 			} catch (CannotFindSolutionException e) {
 				// It failed! Try the next value
@@ -59,18 +102,50 @@ public class BacktrackingSolver implements SudokuBoardSolver {
 		// We failed to find a solution. Reset the value of the
 		// cell and throw an exception to indicate the failure.
 		cell.setValue(0);
+		if (trace != null) trace.remove(cell.row, cell.column);
 		throw new CannotFindSolutionException();
 	}
 
+	/**
+	 * This method counts solutions by trying each possible value of the
+	 * most constrained cell in turn, on a copy of the board. Unlike
+	 * {@link #solve(SudokuBoard, IProgressMonitor)}, dead ends are reported
+	 * by the return value rather than by an exception.
+	 */
+	public int countSolutions(SudokuBoard board, int limit) {
+		if (!board.isValid()) return 0;
+		return countSolutions(new SudokuBoard(board), limit, 0);
+	}
+
+	public boolean isUnique(SudokuBoard board) {
+		return countSolutions(board, 2) == 1;
+	}
+
+	private int countSolutions(SudokuBoard board, int limit, int found) {
+		Cell cell = findEmptyCellWithLeastPossibleValues(board);
+		if (cell == null) return found + 1;
+		int candidates = cell.getCandidateMask();
+		while (candidates != 0 && found < limit) {
+			int bit = Integer.lowestOneBit(candidates);
+			candidates &= ~bit;
+			cell.setValue(Integer.numberOfTrailingZeros(bit) + 1);
+			found = countSolutions(board, limit, found);
+		}
+		cell.setValue(0);
+		return found;
+	}
+
 	private Cell findEmptyCellWithLeastPossibleValues(SudokuBoard board) {
 		int minimum = 10;
 		Cell cell = null;
 		for (Cell candidate : board.getCells()) {
 			if (!candidate.isEmpty()) continue;
-			int count = candidate.getPossibleValues().size();
+			int count = candidate.getCandidateCount();
 			if (count < minimum) {
 				minimum = count;
 				cell = candidate;
+				// Can't do any better than a dead end.
+				if (minimum == 0) break;
 			}
 		}
 		return cell;
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.bitboard.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.solver.bitboard.BitboardEngine;
+import org.eclipse.sudoku.solver.bitboard.BitboardSolver;
+
+public class BitboardEngineTests extends TestCase {
+	static final String SEVENTEEN_CLUES = "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+	static final String SEVENTEEN_CLUES_SOLUTION = "693784512487512936125963874932651487568247391741398625319475268856129743274836159";
+
+	BitboardEngine engine = new BitboardEngine();
+
+	public void testSolveSeventeenClues() throws Exception {
+		assertTrue(engine.load(toValues(SEVENTEEN_CLUES)));
+		assertTrue(engine.solve());
+		assertEquals(SEVENTEEN_CLUES_SOLUTION, toString(engine.getSolution()));
+		assertEquals(1, engine.countSolutions(2));
+	}
+
+	public void testSearchKeepsLoadedState() throws Exception {
+		engine.load(toValues(SEVENTEEN_CLUES));
+		int[] loaded = engine.getValues();
+		engine.countSolutions(2);
+		assertEquals(toString(loaded), toString(engine.getValues()));
+	}
+
+	public void testCountSolutions() throws Exception {
+		assertTrue(engine.load(new int[81]));
+		assertEquals(10, engine.countSolutions(10));
+
+		int[] values = toValues(SEVENTEEN_CLUES);
+		values[7] = 0;
+		engine.load(values);
+		assertTrue(engine.countSolutions(2) > 1);
+	}
+
+	public void testEliminate() throws Exception {
+		assertTrue(engine.load(toValues(SEVENTEEN_CLUES)));
+		// Excluding the only solution's value from a cell leaves no solution.
+		int cell = 0;
+		engine.eliminate(cell, SEVENTEEN_CLUES_SOLUTION.charAt(cell) - '0');
+		assertEquals(0, engine.countSolutions(1));
+		assertFalse(engine.solve());
+	}
+
+	public void testConflictingGivens() throws Exception {
+		int[] values = toValues(SEVENTEEN_CLUES);
+		values[0] = 1;
+		assertFalse(engine.load(values));
+		assertEquals(0, engine.countSolutions(1));
+	}
+
+	public void testSolver() throws Exception {
+		SudokuBoard board = new SudokuBoard(new int[][] {
+				{0,6,0, 1,0,4, 0,5,0},
+				{0,0,8, 3,0,5, 6,0,0},
+				{2,0,0, 0,0,0, 0,0,1},
+
+				{8,0,0, 4,0,7, 0,0,6},
+				{0,0,6, 0,0,0, 3,0,0},
+				{7,0,0, 9,0,1, 0,0,4},
+
+				{5,0,0, 0,0,0, 0,0,2},
+				{0,0,7, 2,0,6, 9,0,0},
+				{0,4,0, 5,0,8, 0,7,0}
+		});
+		new BitboardSolver().solve(board, new NullProgressMonitor());
+		assertTrue(board.isComplete());
+		assertTrue(board.isValid());
+
+		board = new SudokuBoard();
+		for (int column = 0; column < 8; column++) {
+			board.setValue(0, column, column + 1);
+		}
+		board.setValue(1, 8, 9);
+		// Row 0 needs a 9 in the last cell, but column 8 already has one.
+		try {
+			new BitboardSolver().solve(board, new NullProgressMonitor());
+			fail();
+		} catch (CannotSolveSudokuBoardException e) {
+		}
+	}
+
+	public void testSolverCountsSolutions() throws Exception {
+		BitboardSolver solver = new BitboardSolver();
+		SudokuBoard board = new SudokuBoard();
+		int[] values = toValues(SEVENTEEN_CLUES);
+		for (int index = 0; index < 81; index++) {
+			board.setValue(index / 9, index % 9, values[index]);
+		}
+		assertTrue(solver.isUnique(board));
+		assertEquals(1, solver.countSolutions(board, 10));
+		assertTrue(board.getCell(0, 0).isEmpty());
+
+		board.getCell(1, 0).clear();
+		assertFalse(solver.isUnique(board));
+		assertEquals(3, solver.countSolutions(new SudokuBoard(), 3));
+	}
+
+	private int[] toValues(String puzzle) {
+		int[] values = new int[81];
+		for (int index = 0; index < 81; index++) {
+			values[index] = puzzle.charAt(index) - '0';
+		}
+		return values;
+	}
+
+	private String toString(int[] values) {
+		StringBuilder builder = new StringBuilder();
+		for (int value : values) {
+			builder.append(value);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.bitboard.tests;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.solver.bitboard.BitboardEngine;
+import org.eclipse.sudoku.solver.bitboard.ParallelBitboardSolver;
+
+public class ParallelBitboardSolverTests extends TestCase {
+	ExecutorService executor;
+	ParallelBitboardSolver solver;
+
+	@Override
+	protected void setUp() throws Exception {
+		executor = Executors.newFixedThreadPool(4);
+		solver = new ParallelBitboardSolver(executor, 4);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		executor.shutdownNow();
+	}
+
+	public void testSolveSeventeenClues() throws Exception {
+		SudokuBoard board = toBoard(BitboardEngineTests.SEVENTEEN_CLUES);
+		solver.solve(board, new NullProgressMonitor());
+		for (int index = 0; index < 81; index++) {
+			assertEquals(BitboardEngineTests.SEVENTEEN_CLUES_SOLUTION.charAt(index) - '0', board.getValue(index / 9, index % 9));
+		}
+	}
+
+	public void testCountMatchesEngine() throws Exception {
+		int[] values = toValues(BitboardEngineTests.SEVENTEEN_CLUES);
+		values[1 * 9 + 0] = 0;
+		values[2 * 9 + 1] = 0;
+		BitboardEngine engine = new BitboardEngine();
+		assertTrue(engine.load(values));
+		int expected = engine.countSolutions(Integer.MAX_VALUE);
+		assertTrue(expected > 1);
+		assertEquals(expected, solver.countSolutions(values, Integer.MAX_VALUE, new NullProgressMonitor()));
+		assertEquals(0, values[9]);
+	}
+
+	public void testCountStopsAtLimit() throws Exception {
+		assertEquals(1000, solver.countSolutions(new SudokuBoard(), 1000));
+		assertTrue(solver.isUnique(toBoard(BitboardEngineTests.SEVENTEEN_CLUES)));
+	}
+
+	public void testCancelled() throws Exception {
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		assertEquals(0, solver.countSolutions(new int[81], Integer.MAX_VALUE, monitor));
+
+		SudokuBoard board = new SudokuBoard();
+		solver.solve(board, monitor);
+		assertTrue(board.getCell(0, 0).isEmpty());
+	}
+
+	public void testNoSolution() throws Exception {
+		SudokuBoard board = new SudokuBoard();
+		for (int column = 0; column < 8; column++) {
+			board.setValue(0, column, column + 1);
+		}
+		board.setValue(1, 8, 9);
+		assertEquals(0, solver.countSolutions(board, 2));
+		try {
+			solver.solve(board, new NullProgressMonitor());
+			fail();
+		} catch (CannotSolveSudokuBoardException e) {
+		}
+	}
+
+	private SudokuBoard toBoard(String puzzle) {
+		SudokuBoard board = new SudokuBoard();
+		for (int index = 0; index < 81; index++) {
+			board.setValue(index / 9, index % 9, puzzle.charAt(index) - '0');
+		}
+		return board;
+	}
+
+	private int[] toValues(String puzzle) {
+		int[] values = new int[81];
+		for (int index = 0; index < 81; index++) {
+			values[index] = puzzle.charAt(index) - '0';
+		}
+		return values;
+	}
+}
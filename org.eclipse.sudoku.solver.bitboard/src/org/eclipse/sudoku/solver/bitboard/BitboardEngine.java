@@ -0,0 +1,353 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.bitboard;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * A Sudoku search engine that keeps the candidates of each cell in a 9 bit
+ * mask (bit <code>value - 1</code> is set if <code>value</code> is still
+ * possible). Placing a value removes it from the masks of the cell's 20
+ * peers; naked singles (cells with one candidate left) and hidden singles
+ * (values with one place left in a row, column or box) are placed in turn
+ * until nothing changes. When propagation stalls, the engine branches on the
+ * empty cell with the fewest candidates.
+ * <p>
+ * The search is iterative: the state at each branch is saved in
+ * preallocated arrays rather than on the call stack, and failure is
+ * reported through return values rather than exceptions. Cells are indexed
+ * in row-major order (<code>row * 9 + column</code>).
+ * <p>
+ * A typical use is to {@link #load(int[])} a puzzle, optionally
+ * {@link #eliminate(int, int)} some candidates, and then
+ * {@link #solve()} or {@link #countSolutions(int)}. Searching does not
+ * change the loaded state, so these can be called repeatedly. Instances are
+ * not thread safe.
+ */
+public class BitboardEngine {
+	private static final int ALL = 0x1ff;
+
+	/*
+	 * The cells of each row (0-8), column (9-17) and box (18-26), and the
+	 * 20 peers of each cell.
+	 */
+	static final int[][] UNITS = new int[27][9];
+	static final int[][] PEERS = new int[81][20];
+
+	static {
+		for (int unit = 0; unit < 9; unit++) {
+			for (int index = 0; index < 9; index++) {
+				UNITS[unit][index] = unit * 9 + index;
+				UNITS[9 + unit][index] = index * 9 + unit;
+				UNITS[18 + unit][index] = ((unit / 3) * 3 + index / 3) * 9 + (unit % 3) * 3 + index % 3;
+			}
+		}
+		for (int cell = 0; cell < 81; cell++) {
+			int count = 0;
+			for (int other = 0; other < 81; other++) {
+				if (other != cell && isPeer(cell, other)) PEERS[cell][count++] = other;
+			}
+		}
+	}
+
+	private static boolean isPeer(int cell, int other) {
+		int row = cell / 9, column = cell % 9;
+		int otherRow = other / 9, otherColumn = other % 9;
+		if (row == otherRow || column == otherColumn) return true;
+		return row / 3 == otherRow / 3 && column / 3 == otherColumn / 3;
+	}
+
+	/*
+	 * The current state: the candidates of each cell, the value of each
+	 * cell (0 if empty), the number of empty cells, and whether a
+	 * contradiction has been found.
+	 */
+	private final int[] candidates = new int[81];
+	private final int[] values = new int[81];
+	private int empty;
+	private boolean contradiction;
+
+	/*
+	 * Cells that have been reduced to a single candidate but not yet
+	 * placed.
+	 */
+	private final int[] singles = new int[81];
+	private int singleCount;
+
+	/*
+	 * The saved state at each level of the search. Level 0 holds the loaded
+	 * state; each branch saves the state it started from along with the
+	 * cell it branched on and the candidates not yet tried.
+	 */
+	private final int[][] savedCandidates = new int[82][81];
+	private final int[][] savedValues = new int[82][81];
+	private final int[] savedEmpty = new int[82];
+	private final int[] branchCells = new int[82];
+	private final int[] branchUntried = new int[82];
+
+	private final int[] solution = new int[81];
+
+	public BitboardEngine() {
+		clear();
+	}
+
+	/**
+	 * This method resets the engine to an empty board.
+	 */
+	public void clear() {
+		for (int cell = 0; cell < 81; cell++) {
+			candidates[cell] = ALL;
+			values[cell] = 0;
+		}
+		empty = 81;
+		contradiction = false;
+		singleCount = 0;
+	}
+
+	/**
+	 * This method loads a puzzle given as the value of each cell in
+	 * row-major order (0 for an empty cell) and propagates the
+	 * consequences. It answers <code>false</code> if the puzzle is
+	 * found to have no solution.
+	 */
+	public boolean load(int[] puzzle) {
+		clear();
+		for (int cell = 0; cell < 81 && !contradiction; cell++) {
+			int value = puzzle[cell];
+			if (value == 0) continue;
+			int bit = 1 << (value - 1);
+			if ((candidates[cell] & bit) == 0) contradiction = true;
+			else if (!place(cell, bit)) contradiction = true;
+		}
+		if (!contradiction) contradiction = !propagate();
+		return !contradiction;
+	}
+
+	/**
+	 * This method removes a value from the candidates of an empty cell and
+	 * propagates the consequences. It answers <code>false</code> if the
+	 * puzzle is found to have no solution.
+	 */
+	public boolean eliminate(int cell, int value) {
+		if (contradiction) return false;
+		int bit = 1 << (value - 1);
+		if (values[cell] != 0) {
+			if (values[cell] == value) contradiction = true;
+		} else if ((candidates[cell] & bit) != 0) {
+			int remaining = candidates[cell] &= ~bit;
+			if (remaining == 0) contradiction = true;
+			else {
+				if ((remaining & (remaining - 1)) == 0) singles[singleCount++] = cell;
+				contradiction = !propagate();
+			}
+		}
+		return !contradiction;
+	}
+
+	/**
+	 * This method answers the candidates of the cell in the loaded state.
+	 */
+	public int getCandidates(int cell) {
+		return candidates[cell];
+	}
+
+	/**
+	 * This method answers the values of the cells in the loaded state,
+	 * including any that were placed by propagation.
+	 */
+	public int[] getValues() {
+		return values.clone();
+	}
+
+	/**
+	 * This method answers the first solution found by the last successful
+	 * call to {@link #solve()} or {@link #countSolutions(int)}.
+	 */
+	public int[] getSolution() {
+		return solution.clone();
+	}
+
+	/**
+	 * This method searches for a solution to the loaded puzzle. If one is
+	 * found, it is available from {@link #getSolution()}.
+	 */
+	public boolean solve() {
+		return countSolutions(1, null) == 1;
+	}
+
+	/**
+	 * This method counts the solutions to the loaded puzzle, stopping once
+	 * <code>limit</code> have been found. Counting to 2 is enough to tell
+	 * whether a puzzle has a unique solution.
+	 */
+	public int countSolutions(int limit) {
+		return countSolutions(limit, null);
+	}
+
+	/**
+	 * This method counts solutions as {@link #countSolutions(int)} does,
+	 * stopping early (and answering the count so far) if the monitor is
+	 * cancelled.
+	 */
+	public int countSolutions(int limit, IProgressMonitor monitor) {
+		if (contradiction) return 0;
+		save(0);
+		int count = 0;
+		int depth = 0;
+		int branches = 0;
+		boolean advance = true;
+		while (true) {
+			if (advance) {
+				if (empty == 0) {
+					if (count++ == 0) System.arraycopy(values, 0, solution, 0, 81);
+					if (count >= limit) break;
+				} else {
+					int cell = findBranchCell();
+					depth++;
+					save(depth);
+					branchCells[depth] = cell;
+					branchUntried[depth] = candidates[cell];
+				}
+			}
+			// Try the next untried candidate at the deepest level that has one.
+			while (depth > 0 && branchUntried[depth] == 0) depth--;
+			if (depth == 0) break;
+			if ((++branches & 0xff) == 0 && monitor != null && monitor.isCanceled()) break;
+			int untried = branchUntried[depth];
+			int bit = Integer.lowestOneBit(untried);
+			branchUntried[depth] = untried & ~bit;
+			restore(depth);
+			advance = place(branchCells[depth], bit) && propagate();
+		}
+		restore(0);
+		return count;
+	}
+
+	/*
+	 * Answers the empty cell that a search of the loaded puzzle would branch
+	 * on first, or -1 if the puzzle is solved or has no solution.
+	 */
+	int getBranchCell() {
+		if (contradiction || empty == 0) return -1;
+		return findBranchCell();
+	}
+
+	private int findBranchCell() {
+		int best = -1;
+		int fewest = 10;
+		for (int cell = 0; cell < 81; cell++) {
+			if (values[cell] != 0) continue;
+			int count = Integer.bitCount(candidates[cell]);
+			if (count < fewest) {
+				fewest = count;
+				best = cell;
+				if (count == 2) break;
+			}
+		}
+		return best;
+	}
+
+	/*
+	 * Places the value (given as a bit) in the cell and removes it from the
+	 * cell's peers, queueing any peer that is left with a single candidate.
+	 * Answers false on a contradiction.
+	 */
+	private boolean place(int cell, int bit) {
+		values[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+		candidates[cell] = bit;
+		empty--;
+		for (int peer : PEERS[cell]) {
+			int mask = candidates[peer];
+			if ((mask & bit) == 0) continue;
+			if (values[peer] != 0) return false;
+			mask &= ~bit;
+			if (mask == 0) return false;
+			candidates[peer] = mask;
+			if ((mask & (mask - 1)) == 0) singles[singleCount++] = peer;
+		}
+		return true;
+	}
+
+	/*
+	 * Places naked and hidden singles until there are none left. Answers
+	 * false on a contradiction.
+	 */
+	private boolean propagate() {
+		boolean ok = true;
+		do {
+			while (ok && singleCount > 0) {
+				int cell = singles[--singleCount];
+				if (values[cell] == 0) ok = place(cell, candidates[cell]);
+			}
+		} while (ok && placeHiddenSingles());
+		if (!ok) singleCount = 0;
+		return ok && !contradiction;
+	}
+
+	/*
+	 * Places the values that have only one possible cell in the first unit
+	 * that has any. Answers true if anything was placed; sets the
+	 * contradiction flag if some value has no possible cell in a unit, or
+	 * if two values need the same cell.
+	 */
+	private boolean placeHiddenSingles() {
+		boolean placed = false;
+		for (int[] unit : UNITS) {
+			int once = 0, twice = 0, solved = 0;
+			for (int cell : unit) {
+				int mask = candidates[cell];
+				if (values[cell] != 0) {
+					solved |= mask;
+					continue;
+				}
+				twice |= once & mask;
+				once |= mask;
+			}
+			if ((once | solved) != ALL) {
+				contradiction = true;
+				return false;
+			}
+			int hidden = once & ~twice & ~solved;
+			while (hidden != 0) {
+				int bit = Integer.lowestOneBit(hidden);
+				hidden &= ~bit;
+				int target = -1;
+				for (int cell : unit) {
+					if (values[cell] == 0 && (candidates[cell] & bit) != 0) {
+						target = cell;
+						break;
+					}
+				}
+				if (target == -1 || !place(target, bit)) {
+					contradiction = true;
+					return false;
+				}
+				placed = true;
+			}
+			if (placed) return true;
+		}
+		return placed;
+	}
+
+	private void save(int depth) {
+		System.arraycopy(candidates, 0, savedCandidates[depth], 0, 81);
+		System.arraycopy(values, 0, savedValues[depth], 0, 81);
+		savedEmpty[depth] = empty;
+	}
+
+	private void restore(int depth) {
+		System.arraycopy(savedCandidates[depth], 0, candidates, 0, 81);
+		System.arraycopy(savedValues[depth], 0, values, 0, 81);
+		empty = savedEmpty[depth];
+		singleCount = 0;
+		contradiction = false;
+	}
+}
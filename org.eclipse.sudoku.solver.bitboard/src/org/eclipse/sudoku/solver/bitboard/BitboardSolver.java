@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.bitboard;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
+import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.solvers.SudokuBoardSolver;
+
+/**
+ * This solver adapts a {@link BitboardEngine} to the
+ * {@link SudokuBoardSolver} interface.
+ */
+public class BitboardSolver implements SudokuBoardSolver {
+	private final BitboardEngine engine = new BitboardEngine();
+
+	public void solve(SudokuBoard board, IProgressMonitor monitor) throws CannotSolveSudokuBoardException {
+		if (!engine.load(getValues(board)) || engine.countSolutions(1, monitor) == 0) {
+			if (monitor.isCanceled()) return;
+			throw new CannotSolveSudokuBoardException();
+		}
+		int[] solution = engine.getSolution();
+		for (int index = 0; index < 81; index++) {
+			Cell cell = board.getCell(index / 9, index % 9);
+			if (cell.isEmpty()) cell.setValue(solution[index]);
+		}
+	}
+
+	public int countSolutions(SudokuBoard board, int limit) {
+		if (!engine.load(getValues(board))) return 0;
+		return engine.countSolutions(limit);
+	}
+
+	public boolean isUnique(SudokuBoard board) {
+		return countSolutions(board, 2) == 1;
+	}
+
+	static int[] getValues(SudokuBoard board) {
+		int[] values = new int[81];
+		for (int index = 0; index < 81; index++) {
+			values[index] = board.getValue(index / 9, index % 9);
+		}
+		return values;
+	}
+}
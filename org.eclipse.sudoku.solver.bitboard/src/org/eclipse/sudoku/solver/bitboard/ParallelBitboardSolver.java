@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.bitboard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
+import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.solvers.SudokuBoardSolver;
+
+/**
+ * This solver splits the search tree of a puzzle at its top branching levels
+ * and searches the resulting subtrees concurrently, each with its own
+ * {@link BitboardEngine}. It is intended for enumerating the solutions of
+ * under-constrained boards and for puzzles that need a lot of search; for
+ * typical puzzles, {@link BitboardSolver} is faster.
+ * <p>
+ * The subtrees are searched by an {@link ExecutorService}. Instances created
+ * by the extension registry share a pool with one daemon thread per
+ * available processor. Every subtree search stops when the progress monitor
+ * is cancelled or when enough solutions have been found in other subtrees.
+ */
+public class ParallelBitboardSolver implements SudokuBoardSolver {
+	/*
+	 * The search tree is split until there are at least this many subtrees
+	 * per thread, so that threads that draw easy subtrees do not go idle.
+	 */
+	private static final int SUBTREES_PER_THREAD = 16;
+
+	private static ExecutorService sharedExecutor;
+
+	private final ExecutorService executor;
+	private final int parallelism;
+
+	/*
+	 * The engines are not thread safe, so each thread keeps its own.
+	 */
+	private final ThreadLocal<BitboardEngine> engines = new ThreadLocal<BitboardEngine>() {
+		protected BitboardEngine initialValue() {
+			return new BitboardEngine();
+		}
+	};
+
+	public ParallelBitboardSolver() {
+		this(getSharedExecutor(), Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * This constructor creates a solver that searches with the provided
+	 * executor, which is expected to run about <code>parallelism</code>
+	 * tasks at a time. The executor is not shut down by the solver.
+	 */
+	public ParallelBitboardSolver(ExecutorService executor, int parallelism) {
+		this.executor = executor;
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	private static synchronized ExecutorService getSharedExecutor() {
+		if (sharedExecutor == null) {
+			sharedExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "Parallel Bitboard Solver " + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return sharedExecutor;
+	}
+
+	public void solve(SudokuBoard board, IProgressMonitor monitor) throws CannotSolveSudokuBoardException {
+		Search search = new Search(1, monitor);
+		if (search.run(BitboardSolver.getValues(board)) == 0) {
+			if (monitor.isCanceled()) return;
+			throw new CannotSolveSudokuBoardException();
+		}
+		int[] solution = search.solution.get();
+		for (int index = 0; index < 81; index++) {
+			Cell cell = board.getCell(index / 9, index % 9);
+			if (cell.isEmpty()) cell.setValue(solution[index]);
+		}
+	}
+
+	public int countSolutions(SudokuBoard board, int limit) {
+		return countSolutions(BitboardSolver.getValues(board), limit, new NullProgressMonitor());
+	}
+
+	/**
+	 * This method counts the solutions of the puzzle held in the array
+	 * (the value of each cell in row-major order, 0 for an empty cell),
+	 * stopping once <code>limit</code> have been found or the monitor is
+	 * cancelled. The array is not changed.
+	 */
+	public int countSolutions(int[] values, int limit, IProgressMonitor monitor) {
+		return new Search(limit, monitor).run(values);
+	}
+
+	public boolean isUnique(SudokuBoard board) {
+		return countSolutions(board, 2) == 1;
+	}
+
+	/**
+	 * Instances of this class hold the state of a single search that is
+	 * shared by all of its subtree tasks.
+	 */
+	private class Search {
+		final int limit;
+		final IProgressMonitor monitor;
+		final AtomicInteger count = new AtomicInteger();
+		final AtomicBoolean stopped = new AtomicBoolean();
+		final AtomicReference<int[]> solution = new AtomicReference<int[]>();
+
+		/*
+		 * The monitor that the engines check: it is cancelled when the
+		 * caller's monitor is or when the search has found enough solutions.
+		 */
+		final IProgressMonitor taskMonitor = new NullProgressMonitor() {
+			public boolean isCanceled() {
+				return stopped.get() || monitor.isCanceled();
+			}
+		};
+
+		Search(int limit, IProgressMonitor monitor) {
+			this.limit = limit;
+			this.monitor = monitor;
+		}
+
+		int run(int[] values) {
+			List<int[]> subtrees = split(values);
+			List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(subtrees.size());
+			for (final int[] subtree : subtrees) {
+				tasks.add(new Callable<Object>() {
+					public Object call() {
+						search(subtree);
+						return null;
+					}
+				});
+			}
+			try {
+				for (Future<Object> future : executor.invokeAll(tasks)) {
+					future.get();
+				}
+			} catch (InterruptedException e) {
+				stopped.set(true);
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+			return Math.min(count.get(), limit);
+		}
+
+		/*
+		 * Splits the search tree breadth first, a level at a time, until
+		 * there are enough subtrees to keep the threads busy or there is
+		 * nothing left to split. Subtrees that are found to have no solution
+		 * while splitting are dropped.
+		 */
+		private List<int[]> split(int[] values) {
+			BitboardEngine engine = engines.get();
+			List<int[]> subtrees = new ArrayList<int[]>();
+			if (engine.load(values)) subtrees.add(values.clone());
+			int target = parallelism * SUBTREES_PER_THREAD;
+			boolean divisible = true;
+			while (divisible && subtrees.size() < target && !taskMonitor.isCanceled()) {
+				divisible = false;
+				List<int[]> next = new ArrayList<int[]>();
+				for (int[] subtree : subtrees) {
+					engine.load(subtree);
+					int cell = engine.getBranchCell();
+					if (cell == -1) {
+						next.add(subtree);
+						continue;
+					}
+					divisible = true;
+					int[] loaded = engine.getValues();
+					int candidates = engine.getCandidates(cell);
+					while (candidates != 0) {
+						int bit = Integer.lowestOneBit(candidates);
+						candidates &= ~bit;
+						int[] child = loaded.clone();
+						child[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+						if (engine.load(child)) next.add(child);
+					}
+				}
+				subtrees = next;
+			}
+			return subtrees;
+		}
+
+		private void search(int[] subtree) {
+			if (taskMonitor.isCanceled()) return;
+			BitboardEngine engine = engines.get();
+			if (!engine.load(subtree)) return;
+			int found = engine.countSolutions(limit, taskMonitor);
+			if (found == 0) return;
+			solution.compareAndSet(null, engine.getSolution());
+			if (count.addAndGet(found) >= limit) stopped.set(true);
+		}
+	}
+}
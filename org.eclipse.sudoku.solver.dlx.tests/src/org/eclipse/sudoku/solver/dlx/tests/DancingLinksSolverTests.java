@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.dlx.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.solvers.SolverTrace;
+import org.eclipse.sudoku.solver.dlx.DancingLinksSolver;
+
+public class DancingLinksSolverTests extends TestCase {
+	static final String SEVENTEEN_CLUES = "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+	static final String SEVENTEEN_CLUES_SOLUTION = "693784512487512936125963874932651487568247391741398625319475268856129743274836159";
+
+	DancingLinksSolver solver = new DancingLinksSolver();
+
+	public void testSolveBoard() throws Exception {
+		SudokuBoard board = new SudokuBoard(new int[][] {
+				{0,6,0, 1,0,4, 0,5,0},
+				{0,0,8, 3,0,5, 6,0,0},
+				{2,0,0, 0,0,0, 0,0,1},
+
+				{8,0,0, 4,0,7, 0,0,6},
+				{0,0,6, 0,0,0, 3,0,0},
+				{7,0,0, 9,0,1, 0,0,4},
+
+				{5,0,0, 0,0,0, 0,0,2},
+				{0,0,7, 2,0,6, 9,0,0},
+				{0,4,0, 5,0,8, 0,7,0}
+		});
+		solver.solve(board, new NullProgressMonitor());
+		assertTrue(board.isComplete());
+		assertTrue(board.isValid());
+		assertEquals(6, board.getValue(0, 1));
+	}
+
+	public void testSolveSeventeenClues() throws Exception {
+		int[] values = toValues(SEVENTEEN_CLUES);
+		assertTrue(solver.solve(values));
+		assertEquals(SEVENTEEN_CLUES_SOLUTION, toString(values));
+	}
+
+	public void testSolverCanBeReused() throws Exception {
+		for (int index = 0; index < 3; index++) {
+			int[] values = toValues(SEVENTEEN_CLUES);
+			assertTrue(solver.solve(values));
+			assertEquals(SEVENTEEN_CLUES_SOLUTION, toString(values));
+		}
+	}
+
+	public void testConflictingGivens() throws Exception {
+		int[] values = toValues(SEVENTEEN_CLUES);
+		values[0] = 1;
+		assertFalse(solver.solve(values));
+		assertEquals(1, values[0]);
+		assertEquals(0, values[1]);
+	}
+
+	public void testNoSolution() throws Exception {
+		// The first row needs a 9, but column 8 already has one.
+		int[] values = toValues("123456780000000009000000000000000000000000000000000000000000000000000000000000000");
+		assertFalse(solver.solve(values));
+
+		SudokuBoard board = new SudokuBoard();
+		for (int index = 0; index < 81; index++) {
+			board.setValue(index / 9, index % 9, values[index]);
+		}
+		try {
+			solver.solve(board, new NullProgressMonitor());
+			fail();
+		} catch (CannotSolveSudokuBoardException e) {
+		}
+		assertTrue(board.getCell(0, 8).isEmpty());
+	}
+
+	public void testCountSolutions() throws Exception {
+		int[] values = toValues(SEVENTEEN_CLUES);
+		assertEquals(1, solver.countSolutions(values, 10));
+		assertEquals(SEVENTEEN_CLUES, toString(values));
+
+		values[1 * 9 + 0] = 0;
+		assertEquals(2, solver.countSolutions(values, 2));
+		assertEquals(0, values[9]);
+
+		assertEquals(5, solver.countSolutions(new int[81], 5));
+	}
+
+	public void testIsUnique() throws Exception {
+		SudokuBoard board = new SudokuBoard();
+		int[] values = toValues(SEVENTEEN_CLUES);
+		for (int index = 0; index < 81; index++) {
+			board.setValue(index / 9, index % 9, values[index]);
+		}
+		assertTrue(solver.isUnique(board));
+		assertTrue(board.getCell(0, 0).isEmpty());
+
+		board.getCell(1, 0).clear();
+		assertFalse(solver.isUnique(board));
+		assertEquals(2, solver.countSolutions(board, 2));
+	}
+
+	public void testTrace() throws Exception {
+		SudokuBoard board = new SudokuBoard();
+		int[] values = toValues(SEVENTEEN_CLUES);
+		for (int index = 0; index < 81; index++) {
+			board.setValue(index / 9, index % 9, values[index]);
+		}
+		SolverTrace trace = new SolverTrace(board);
+		solver.solve(board, new NullProgressMonitor(), trace);
+		assertTrue(trace.size() >= 64);
+
+		SudokuBoard replay = new SudokuBoard();
+		trace.reset(replay);
+		for (int index = 0; index < trace.size(); index++) {
+			trace.apply(replay, index);
+		}
+		assertEquals(board, replay);
+	}
+
+	private int[] toValues(String puzzle) {
+		int[] values = new int[81];
+		for (int index = 0; index < 81; index++) {
+			values[index] = puzzle.charAt(index) - '0';
+		}
+		return values;
+	}
+
+	private String toString(int[] values) {
+		StringBuilder builder = new StringBuilder();
+		for (int value : values) {
+			builder.append(value);
+		}
+		return builder.toString();
+	}
+}
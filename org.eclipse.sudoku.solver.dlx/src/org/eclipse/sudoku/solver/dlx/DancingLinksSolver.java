@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.dlx;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
+import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.solvers.SolverTrace;
+import org.eclipse.sudoku.core.solvers.SudokuBoardSolver;
+import org.eclipse.sudoku.core.solvers.TraceableSudokuBoardSolver;
+
+/**
+ * This solver treats Sudoku as an exact cover problem and solves it with
+ * Knuth's Algorithm X using Dancing Links. The matrix has a column for
+ * each of the 324 constraints (each cell holds a value, and each row,
+ * column and box holds each value once) and a row for each of the 729
+ * possible placements of a value in a cell.
+ * <p>
+ * The links are held in parallel <code>int</code> arrays that are
+ * allocated when the solver is created. Every cover made during a search is
+ * undone before the search returns, so the same matrix is reused for any
+ * number of puzzles and searching does not allocate.
+ * <p>
+ * Besides the {@link SudokuBoardSolver} interface, the solver can be used
+ * headlessly on plain arrays with {@link #solve(int[])} and
+ * {@link #countSolutions(int[], int)}. Instances are not thread safe.
+ */
+public class DancingLinksSolver implements TraceableSudokuBoardSolver {
+	private static final int COLUMNS = 324;
+	private static final int ROWS = 729;
+	private static final int ROOT = 0;
+	private static final int NODES = 1 + COLUMNS + ROWS * 4;
+
+	/*
+	 * Node 0 is the root, nodes 1 through 324 are the column headers and
+	 * the remaining nodes are the four nodes of each of the 729 rows (the
+	 * nodes of row r start at 1 + COLUMNS + r * 4).
+	 */
+	private final int[] left = new int[NODES];
+	private final int[] right = new int[NODES];
+	private final int[] up = new int[NODES];
+	private final int[] down = new int[NODES];
+	private final int[] columns = new int[NODES];
+	private final int[] rows = new int[NODES];
+	private final int[] sizes = new int[COLUMNS + 1];
+
+	/*
+	 * The node selected at each depth of the current search, the given
+	 * rows that were selected before the search started, and the values
+	 * of the first solution found.
+	 */
+	private final int[] selected = new int[81];
+	private final int[] givens = new int[81];
+	private final int[] solution = new int[81];
+
+	private int solutions;
+	private int limit;
+	private IProgressMonitor monitor;
+	private SolverTrace trace;
+
+	public DancingLinksSolver() {
+		for (int column = 0; column <= COLUMNS; column++) {
+			left[column] = column == 0 ? COLUMNS : column - 1;
+			right[column] = column == COLUMNS ? 0 : column + 1;
+			up[column] = column;
+			down[column] = column;
+		}
+		for (int row = 0; row < ROWS; row++) {
+			int cell = row / 9;
+			int value = row % 9;
+			int box = (cell / 27) * 3 + (cell % 9) / 3;
+			int first = getFirstNode(row);
+			addNode(first, row, 1 + cell);
+			addNode(first + 1, row, 1 + 81 + (cell / 9) * 9 + value);
+			addNode(first + 2, row, 1 + 162 + (cell % 9) * 9 + value);
+			addNode(first + 3, row, 1 + 243 + box * 9 + value);
+			for (int index = 0; index < 4; index++) {
+				left[first + index] = first + (index + 3) % 4;
+				right[first + index] = first + (index + 1) % 4;
+			}
+		}
+	}
+
+	private int getFirstNode(int row) {
+		return 1 + COLUMNS + row * 4;
+	}
+
+	private void addNode(int node, int row, int column) {
+		rows[node] = row;
+		columns[node] = column;
+		up[node] = up[column];
+		down[node] = column;
+		down[up[column]] = node;
+		up[column] = node;
+		sizes[column]++;
+	}
+
+	public void solve(SudokuBoard board, IProgressMonitor monitor) throws CannotSolveSudokuBoardException {
+		solve(board, monitor, null);
+	}
+
+	/**
+	 * This method solves the board, recording the placement of each row
+	 * that the search selects and the removal of each row that it backs
+	 * out of.
+	 */
+	public void solve(SudokuBoard board, IProgressMonitor monitor, SolverTrace trace) throws CannotSolveSudokuBoardException {
+		this.trace = trace;
+		int found;
+		try {
+			found = search(getValues(board), 1, monitor);
+		} finally {
+			this.trace = null;
+		}
+		if (found == 0) {
+			if (monitor.isCanceled()) return;
+			throw new CannotSolveSudokuBoardException();
+		}
+		for (int index = 0; index < 81; index++) {
+			Cell cell = board.getCell(index / 9, index % 9);
+			if (cell.isEmpty()) cell.setValue(solution[index]);
+		}
+	}
+
+	/**
+	 * This method solves the puzzle held in the array, which contains the
+	 * value of each cell in row-major order (0 for an empty cell). If the
+	 * puzzle has a solution, the empty cells are filled in and
+	 * <code>true</code> is answered; otherwise, the array is not changed
+	 * and <code>false</code> is answered.
+	 */
+	public boolean solve(int[] values) {
+		if (search(values, 1, null) == 0) return false;
+		System.arraycopy(solution, 0, values, 0, 81);
+		return true;
+	}
+
+	public int countSolutions(SudokuBoard board, int limit) {
+		return search(getValues(board), limit, null);
+	}
+
+	public boolean isUnique(SudokuBoard board) {
+		return countSolutions(board, 2) == 1;
+	}
+
+	/**
+	 * This method counts the solutions of the puzzle held in the array,
+	 * stopping once <code>limit</code> have been found. The array is not
+	 * changed.
+	 */
+	public int countSolutions(int[] values, int limit) {
+		return search(values, limit, null);
+	}
+
+	private int[] getValues(SudokuBoard board) {
+		int[] values = new int[81];
+		for (int index = 0; index < 81; index++) {
+			values[index] = board.getValue(index / 9, index % 9);
+		}
+		return values;
+	}
+
+	/**
+	 * This method searches for up to <code>limit</code> solutions to the
+	 * puzzle and answers the number found; the first is left in
+	 * {@link #solution}. The matrix is restored before answering.
+	 */
+	private int search(int[] values, int limit, IProgressMonitor monitor) {
+		this.solutions = 0;
+		this.limit = limit;
+		this.monitor = monitor;
+		int count = 0;
+		boolean consistent = true;
+		for (int index = 0; index < 81 && consistent; index++) {
+			int value = values[index];
+			if (value == 0) continue;
+			int node = getFirstNode(index * 9 + value - 1);
+			consistent = isSelectable(node);
+			if (consistent) {
+				select(node);
+				givens[count++] = node;
+			}
+		}
+		if (consistent) {
+			System.arraycopy(values, 0, solution, 0, 81);
+			search(0);
+		}
+		while (count > 0) {
+			unselect(givens[--count]);
+		}
+		this.monitor = null;
+		return solutions;
+	}
+
+	/*
+	 * Answers true when the search should stop, either because enough
+	 * solutions have been found or because it has been cancelled.
+	 */
+	private boolean search(int depth) {
+		if (right[ROOT] == ROOT) {
+			if (solutions++ == 0) {
+				for (int index = 0; index < depth; index++) {
+					int row = rows[selected[index]];
+					solution[row / 9] = row % 9 + 1;
+				}
+			}
+			return solutions >= limit;
+		}
+		if (monitor != null && monitor.isCanceled()) return true;
+
+		int column = right[ROOT];
+		for (int candidate = right[column]; candidate != ROOT; candidate = right[candidate]) {
+			if (sizes[candidate] < sizes[column]) column = candidate;
+		}
+		if (sizes[column] == 0) return false;
+
+		cover(column);
+		for (int node = down[column]; node != column; node = down[node]) {
+			selected[depth] = node;
+			int cell = rows[node] / 9;
+			if (trace != null) trace.place(cell / 9, cell % 9, rows[node] % 9 + 1);
+			for (int other = right[node]; other != node; other = right[other]) {
+				cover(columns[other]);
+			}
+			boolean done = search(depth + 1);
+			for (int other = left[node]; other != node; other = left[other]) {
+				uncover(columns[other]);
+			}
+			if (done) {
+				uncover(column);
+				return true;
+			}
+			if (trace != null) trace.remove(cell / 9, cell % 9);
+		}
+		uncover(column);
+		return false;
+	}
+
+	/*
+	 * A row can be selected only if none of its columns is already covered.
+	 */
+	private boolean isSelectable(int node) {
+		int other = node;
+		do {
+			int column = columns[other];
+			if (right[left[column]] != column) return false;
+			other = right[other];
+		} while (other != node);
+		return true;
+	}
+
+	private void select(int node) {
+		cover(columns[node]);
+		for (int other = right[node]; other != node; other = right[other]) {
+			cover(columns[other]);
+		}
+	}
+
+	private void unselect(int node) {
+		for (int other = left[node]; other != node; other = left[other]) {
+			uncover(columns[other]);
+		}
+		uncover(columns[node]);
+	}
+
+	private void cover(int column) {
+		right[left[column]] = right[column];
+		left[right[column]] = left[column];
+		for (int row = down[column]; row != column; row = down[row]) {
+			for (int node = right[row]; node != row; node = right[node]) {
+				down[up[node]] = down[node];
+				up[down[node]] = up[node];
+				sizes[columns[node]]--;
+			}
+		}
+	}
+
+	private void uncover(int column) {
+		for (int row = up[column]; row != column; row = up[row]) {
+			for (int node = left[row]; node != row; node = left[node]) {
+				sizes[columns[node]]++;
+				down[up[node]] = node;
+				up[down[node]] = node;
+			}
+		}
+		right[left[column]] = column;
+		left[right[column]] = column;
+	}
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.logical.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.solvers.SolverTrace;
+import org.eclipse.sudoku.solver.logical.Difficulty;
+import org.eclipse.sudoku.solver.logical.Grade;
+import org.eclipse.sudoku.solver.logical.LogicalEngine;
+import org.eclipse.sudoku.solver.logical.LogicalSolver;
+import org.eclipse.sudoku.solver.logical.Technique;
+
+public class LogicalEngineTests extends TestCase {
+	static final String SEVENTEEN_CLUES = "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+	static final String SEVENTEEN_CLUES_SOLUTION = "693784512487512936125963874932651487568247391741398625319475268856129743274836159";
+	static final String POINTING = "430706000100009007000205000010000080060000001800050002000300700000800405070000600";
+	static final String NAKED_PAIR = "000007302000000080009030140002900000740000090006570000001004025020000600000805000";
+	static final String X_WING = "000019200000000009060030007050083900046000005000040800502071400000000300070000001";
+	static final String DIABOLICAL = "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+	static final String DIABOLICAL_SOLUTION = "812753649943682175675491283154237896369845721287169534521974368438526917796318452";
+
+	LogicalEngine engine = new LogicalEngine();
+
+	public void testSinglesOnly() throws Exception {
+		assertTrue(engine.load(toValues(SEVENTEEN_CLUES)));
+		Grade grade = engine.grade(null);
+		assertTrue(grade.isSolved());
+		assertEquals(Difficulty.EASY, grade.getDifficulty());
+		assertEquals(64, grade.getCount(Technique.HIDDEN_SINGLE) + grade.getCount(Technique.NAKED_SINGLE));
+		assertEquals(SEVENTEEN_CLUES_SOLUTION, toString(engine.getSolution()));
+	}
+
+	public void testHardestTechnique() throws Exception {
+		assertHardest(POINTING, Technique.POINTING, Difficulty.MEDIUM);
+		assertHardest(NAKED_PAIR, Technique.NAKED_PAIR, Difficulty.HARD);
+		assertHardest(X_WING, Technique.X_WING, Difficulty.EXPERT);
+	}
+
+	public void testGuessing() throws Exception {
+		assertTrue(engine.load(toValues(DIABOLICAL)));
+		Grade grade = engine.grade(null);
+		assertTrue(grade.isSolved());
+		assertEquals(Difficulty.DIABOLICAL, grade.getDifficulty());
+		assertTrue(grade.getCount(Technique.GUESS) > 0);
+		assertEquals(DIABOLICAL_SOLUTION, toString(engine.getSolution()));
+		assertDeductionsAgree(DIABOLICAL_SOLUTION);
+	}
+
+	public void testGradeKeepsLoadedState() throws Exception {
+		engine.load(toValues(X_WING));
+		String first = engine.grade(null).toString();
+		assertEquals(first, engine.grade(null).toString());
+		assertEquals(1, engine.countSolutions(2));
+	}
+
+	public void testCountSolutions() throws Exception {
+		int[] values = toValues(SEVENTEEN_CLUES);
+		assertTrue(engine.load(values));
+		assertEquals(1, engine.countSolutions(10));
+
+		values[1 * 9 + 0] = 0;
+		engine.load(values);
+		assertEquals(2, engine.countSolutions(2));
+
+		engine.load(new int[81]);
+		assertEquals(5, engine.countSolutions(5));
+	}
+
+	public void testConflictingGivens() throws Exception {
+		int[] values = toValues(SEVENTEEN_CLUES);
+		values[0] = 1;
+		assertFalse(engine.load(values));
+		assertFalse(engine.grade(null).isSolved());
+		assertEquals(0, engine.countSolutions(2));
+	}
+
+	public void testSolver() throws Exception {
+		LogicalSolver solver = new LogicalSolver();
+		SudokuBoard board = toBoard(DIABOLICAL);
+		assertTrue(solver.isUnique(board));
+		assertEquals(Difficulty.DIABOLICAL, solver.grade(board).getDifficulty());
+		assertTrue(board.getCell(0, 1).isEmpty());
+
+		SolverTrace trace = new SolverTrace(board);
+		solver.solve(board, new NullProgressMonitor(), trace);
+		assertEquals(toBoard(DIABOLICAL_SOLUTION), board);
+
+		SudokuBoard replay = new SudokuBoard();
+		trace.reset(replay);
+		for (int index = 0; index < trace.size(); index++) {
+			trace.apply(replay, index);
+		}
+		assertEquals(board, replay);
+
+		board = new SudokuBoard();
+		for (int column = 0; column < 8; column++) {
+			board.setValue(0, column, column + 1);
+		}
+		board.setValue(1, 8, 9);
+		try {
+			solver.solve(board, new NullProgressMonitor());
+			fail();
+		} catch (CannotSolveSudokuBoardException e) {
+		}
+	}
+
+	private void assertHardest(String puzzle, Technique technique, Difficulty difficulty) {
+		assertTrue(engine.load(toValues(puzzle)));
+		Grade grade = engine.grade(null);
+		assertTrue(grade.isSolved());
+		assertEquals(technique, grade.getHardestTechnique());
+		assertEquals(difficulty, grade.getDifficulty());
+		assertEquals(0, grade.getCount(Technique.GUESS));
+		assertDeductionsAgree(toString(engine.getSolution()));
+	}
+
+	/*
+	 * Every value placed must be the solution's value, and no value
+	 * removed may be.
+	 */
+	private void assertDeductionsAgree(String solution) {
+		for (int index = 0; index < engine.getDeductionCount(); index++) {
+			int deduction = engine.getDeduction(index);
+			int value = solution.charAt(LogicalEngine.getCell(deduction)) - '0';
+			if (LogicalEngine.isPlacement(deduction)) {
+				if (LogicalEngine.getTechnique(deduction) != Technique.GUESS) assertEquals(value, LogicalEngine.getValue(deduction));
+			} else {
+				assertFalse(value == LogicalEngine.getValue(deduction));
+			}
+		}
+	}
+
+	private SudokuBoard toBoard(String puzzle) {
+		SudokuBoard board = new SudokuBoard();
+		for (int index = 0; index < 81; index++) {
+			board.setValue(index / 9, index % 9, puzzle.charAt(index) - '0');
+		}
+		return board;
+	}
+
+	private int[] toValues(String puzzle) {
+		int[] values = new int[81];
+		for (int index = 0; index < 81; index++) {
+			values[index] = puzzle.charAt(index) - '0';
+		}
+		return values;
+	}
+
+	private String toString(int[] values) {
+		StringBuilder builder = new StringBuilder();
+		for (int value : values) {
+			builder.append(value);
+		}
+		return builder.toString();
+	}
+}
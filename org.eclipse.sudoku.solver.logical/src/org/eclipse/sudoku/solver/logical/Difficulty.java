@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.logical;
+
+/**
+ * The difficulty of a puzzle, as judged by the hardest {@link Technique}
+ * needed to solve it.
+ */
+public enum Difficulty {
+	/**
+	 * Only singles are needed.
+	 */
+	EASY,
+
+	/**
+	 * Candidates that are locked into the intersection of a box and a line
+	 * are needed.
+	 */
+	MEDIUM,
+
+	/**
+	 * Naked or hidden pairs or triples are needed.
+	 */
+	HARD,
+
+	/**
+	 * Fish (X-Wing or Swordfish) are needed.
+	 */
+	EXPERT,
+
+	/**
+	 * The puzzle cannot be solved by the techniques that the solver knows
+	 * without guessing.
+	 */
+	DIABOLICAL
+}
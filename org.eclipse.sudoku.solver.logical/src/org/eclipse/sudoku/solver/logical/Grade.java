@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.logical;
+
+/**
+ * Instances of this class describe how a puzzle was solved by the
+ * {@link LogicalEngine}: how many times each {@link Technique} was applied,
+ * the hardest technique needed, and an overall score. Only the
+ * deductions on the path to the solution are counted, except for guesses,
+ * which are all counted (including the ones that turned out to be wrong).
+ */
+public class Grade {
+	private final int[] counts;
+	private final boolean solved;
+
+	Grade(int[] counts, boolean solved) {
+		this.counts = counts.clone();
+		this.solved = solved;
+	}
+
+	/**
+	 * This method answers whether the puzzle was solved. A puzzle that has
+	 * no solution is not solved and has no meaningful difficulty.
+	 */
+	public boolean isSolved() {
+		return solved;
+	}
+
+	/**
+	 * This method answers the number of times that the technique was
+	 * applied. Singles are counted once for each value placed; the other
+	 * techniques are counted once for each pattern that removed
+	 * candidates.
+	 */
+	public int getCount(Technique technique) {
+		return counts[technique.ordinal()];
+	}
+
+	/**
+	 * This method answers the most expensive technique that was applied,
+	 * or <code>null</code> if the puzzle needed no deductions.
+	 */
+	public Technique getHardestTechnique() {
+		Technique[] techniques = Technique.values();
+		for (int index = techniques.length - 1; index >= 0; index--) {
+			if (counts[index] > 0) return techniques[index];
+		}
+		return null;
+	}
+
+	public Difficulty getDifficulty() {
+		Technique hardest = getHardestTechnique();
+		return hardest == null ? Difficulty.EASY : hardest.getDifficulty();
+	}
+
+	/**
+	 * This method answers the sum of the costs of all of the techniques
+	 * applied. Among puzzles of the same difficulty, a higher score
+	 * generally means more work.
+	 */
+	public int getScore() {
+		int score = 0;
+		for (Technique technique : Technique.values()) {
+			score += counts[technique.ordinal()] * technique.getCost();
+		}
+		return score;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(solved ? getDifficulty() : "UNSOLVED");
+		builder.append(" (").append(getScore()).append(")");
+		for (Technique technique : Technique.values()) {
+			int count = counts[technique.ordinal()];
+			if (count > 0) builder.append(", ").append(technique).append(" x").append(count);
+		}
+		return builder.toString();
+	}
+}
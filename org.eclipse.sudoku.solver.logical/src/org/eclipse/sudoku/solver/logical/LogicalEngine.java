@@ -0,0 +1,646 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.logical;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.sudoku.core.solvers.SolverTrace;
+
+/**
+ * A Sudoku engine that solves puzzles the way a person would, applying the
+ * techniques listed in {@link Technique} in order of cost: after every
+ * deduction it starts again from the cheapest technique. When no technique
+ * applies, it guesses the value of the empty cell with the fewest
+ * candidates and carries on, backing out of guesses that lead to a
+ * contradiction.
+ * <p>
+ * The candidates of each cell are kept in a 9 bit mask (bit
+ * <code>value - 1</code> is set if <code>value</code> is still possible)
+ * and cells are indexed in row-major order (<code>row * 9 + column</code>).
+ * Each deduction is recorded with the technique that made it (see
+ * {@link #getDeduction(int)}), and a {@link Grade} summarizes them.
+ * <p>
+ * A typical use is to {@link #load(int[])} a puzzle and then
+ * {@link #grade(IProgressMonitor)} it or {@link #countSolutions(int)}.
+ * Neither changes the loaded state, so these can be called repeatedly.
+ * Instances are not thread safe.
+ */
+public class LogicalEngine {
+	private static final int ALL = 0x1ff;
+	private static final int TECHNIQUES = Technique.values().length;
+
+	/*
+	 * The cells of each row (0-8), column (9-17) and box (18-26), the 20
+	 * peers of each cell, and the row, column and box of each cell.
+	 */
+	static final int[][] UNITS = new int[27][9];
+	static final int[][] PEERS = new int[81][20];
+	static final int[][] CELL_UNITS = new int[81][3];
+
+	static {
+		for (int unit = 0; unit < 9; unit++) {
+			for (int index = 0; index < 9; index++) {
+				UNITS[unit][index] = unit * 9 + index;
+				UNITS[9 + unit][index] = index * 9 + unit;
+				UNITS[18 + unit][index] = ((unit / 3) * 3 + index / 3) * 9 + (unit % 3) * 3 + index % 3;
+			}
+		}
+		for (int cell = 0; cell < 81; cell++) {
+			int row = cell / 9, column = cell % 9;
+			CELL_UNITS[cell][0] = row;
+			CELL_UNITS[cell][1] = 9 + column;
+			CELL_UNITS[cell][2] = 18 + (row / 3) * 3 + column / 3;
+			int count = 0;
+			for (int other = 0; other < 81; other++) {
+				if (other == cell) continue;
+				if (other / 9 == row || other % 9 == column || CELL_UNITS[cell][2] == 18 + (other / 27) * 3 + (other % 9) / 3) {
+					PEERS[cell][count++] = other;
+				}
+			}
+		}
+	}
+
+	/*
+	 * The current state: the candidates of each cell, the value of each
+	 * cell (0 if empty), the number of empty cells, and whether a
+	 * contradiction has been found.
+	 */
+	private final int[] candidates = new int[81];
+	private final int[] values = new int[81];
+	private int empty;
+	private boolean contradiction;
+
+	/*
+	 * The number of times each technique has been applied, the number of
+	 * guesses made, and the log of deductions (kept only while grading).
+	 */
+	private final int[] counts = new int[TECHNIQUES];
+	private int guesses;
+	private int[] deductions = new int[256];
+	private int deductionCount;
+	private boolean recording;
+	private SolverTrace trace;
+
+	/*
+	 * The state saved before each guess, so that it can be backed out of.
+	 * Level 0 holds the loaded state.
+	 */
+	private final int[][] savedCandidates = new int[82][81];
+	private final int[][] savedValues = new int[82][81];
+	private final int[] savedEmpty = new int[82];
+	private final int[][] savedCounts = new int[82][TECHNIQUES];
+	private final int[] savedDeductionCount = new int[82];
+
+	private final int[] solution = new int[81];
+	private int solutions;
+	private IProgressMonitor monitor;
+
+	/*
+	 * Scratch space for the subset and fish searches.
+	 */
+	private final int[] masks = new int[9];
+	private final int[] members = new int[9];
+
+	public LogicalEngine() {
+		clear();
+	}
+
+	/**
+	 * This method resets the engine to an empty board.
+	 */
+	public void clear() {
+		for (int cell = 0; cell < 81; cell++) {
+			candidates[cell] = ALL;
+			values[cell] = 0;
+		}
+		empty = 81;
+		contradiction = false;
+		deductionCount = 0;
+	}
+
+	/**
+	 * This method loads a puzzle given as the value of each cell in
+	 * row-major order (0 for an empty cell). It answers <code>false</code>
+	 * if two of the givens conflict.
+	 */
+	public boolean load(int[] puzzle) {
+		clear();
+		for (int cell = 0; cell < 81 && !contradiction; cell++) {
+			int value = puzzle[cell];
+			if (value == 0) continue;
+			if ((candidates[cell] & (1 << (value - 1))) == 0) contradiction = true;
+			else assign(cell, value);
+		}
+		return !contradiction;
+	}
+
+	/**
+	 * This method sets the trace that placements and backtracks are
+	 * recorded in while grading, or <code>null</code> for none.
+	 */
+	public void setTrace(SolverTrace trace) {
+		this.trace = trace;
+	}
+
+	/**
+	 * This method solves the loaded puzzle, preferring the cheapest
+	 * techniques and guessing only when none apply, and answers a summary
+	 * of the work that was needed. If the puzzle is solved, the solution
+	 * is available from {@link #getSolution()} and the deductions on the
+	 * way to it from {@link #getDeduction(int)}. The monitor may be
+	 * <code>null</code>; if it is cancelled, the puzzle is reported as
+	 * not solved.
+	 */
+	public Grade grade(IProgressMonitor monitor) {
+		for (int index = 0; index < TECHNIQUES; index++) {
+			counts[index] = 0;
+		}
+		guesses = 0;
+		deductionCount = 0;
+		boolean solved = false;
+		if (!contradiction) {
+			recording = true;
+			solved = search(1, monitor, true) == 1;
+			recording = false;
+		}
+		counts[Technique.GUESS.ordinal()] = guesses;
+		return new Grade(counts, solved);
+	}
+
+	/**
+	 * This method counts the solutions to the loaded puzzle, stopping once
+	 * <code>limit</code> have been found. Only singles are used between
+	 * guesses, since they are the cheapest way to narrow the search.
+	 */
+	public int countSolutions(int limit) {
+		if (contradiction) return 0;
+		return search(limit, null, false);
+	}
+
+	/**
+	 * This method answers the first solution found by the last call to
+	 * {@link #grade(IProgressMonitor)} or {@link #countSolutions(int)}
+	 * that found one.
+	 */
+	public int[] getSolution() {
+		return solution.clone();
+	}
+
+	/**
+	 * This method answers the candidates of the cell in the loaded state.
+	 */
+	public int getCandidates(int cell) {
+		return candidates[cell];
+	}
+
+	/**
+	 * This method answers the number of deductions recorded by the last
+	 * call to {@link #grade(IProgressMonitor)}.
+	 */
+	public int getDeductionCount() {
+		return deductionCount;
+	}
+
+	/**
+	 * This method answers a deduction recorded by the last call to
+	 * {@link #grade(IProgressMonitor)}, packed into an <code>int</code>;
+	 * use {@link #getTechnique(int)}, {@link #getCell(int)},
+	 * {@link #getValue(int)} and {@link #isPlacement(int)} to unpack it.
+	 * A deduction either places a value in a cell or removes it from the
+	 * cell's candidates.
+	 */
+	public int getDeduction(int index) {
+		if (index >= deductionCount) throw new IndexOutOfBoundsException();
+		return deductions[index];
+	}
+
+	public static Technique getTechnique(int deduction) {
+		return Technique.values()[deduction >>> 12];
+	}
+
+	public static boolean isPlacement(int deduction) {
+		return (deduction & 0x800) != 0;
+	}
+
+	public static int getValue(int deduction) {
+		return (deduction >> 7) & 0xf;
+	}
+
+	public static int getCell(int deduction) {
+		return deduction & 0x7f;
+	}
+
+	/*
+	 * Applies deductions and guesses until the puzzle is solved, counting
+	 * solutions up to the limit. The loaded state is restored before
+	 * answering.
+	 */
+	private int search(int limit, IProgressMonitor monitor, boolean grading) {
+		this.monitor = monitor;
+		this.solutions = 0;
+		save(0);
+		search(1, limit, grading);
+		restore(0, false);
+		this.monitor = null;
+		return solutions;
+	}
+
+	private void search(int depth, int limit, boolean grading) {
+		if (monitor != null && monitor.isCanceled()) return;
+		deduce(grading);
+		if (contradiction) return;
+		if (empty == 0) {
+			if (solutions++ == 0) System.arraycopy(values, 0, solution, 0, 81);
+			return;
+		}
+		int cell = findGuessCell();
+		save(depth);
+		int untried = candidates[cell];
+		while (untried != 0 && solutions < limit) {
+			int bit = Integer.lowestOneBit(untried);
+			untried &= ~bit;
+			restore(depth, true);
+			place(cell, Integer.numberOfTrailingZeros(bit) + 1, Technique.GUESS);
+			search(depth + 1, limit, grading);
+		}
+	}
+
+	private int findGuessCell() {
+		int best = -1;
+		int fewest = 10;
+		for (int cell = 0; cell < 81; cell++) {
+			if (values[cell] != 0) continue;
+			int count = Integer.bitCount(candidates[cell]);
+			if (count < fewest) {
+				fewest = count;
+				best = cell;
+				if (count == 2) break;
+			}
+		}
+		return best;
+	}
+
+	/*
+	 * Applies the techniques in order of cost until the puzzle is solved,
+	 * a contradiction is found or nothing applies. When not grading, only
+	 * singles are used.
+	 */
+	private void deduce(boolean grading) {
+		while (!contradiction && empty > 0) {
+			if (hiddenSingles() || nakedSingles()) continue;
+			if (!grading) return;
+			if (pointing() || boxLineReduction()) continue;
+			if (nakedSubsets(2, Technique.NAKED_PAIR) || hiddenSubsets(2, Technique.HIDDEN_PAIR)) continue;
+			if (nakedSubsets(3, Technique.NAKED_TRIPLE) || hiddenSubsets(3, Technique.HIDDEN_TRIPLE)) continue;
+			if (fish(2, Technique.X_WING) || fish(3, Technique.SWORDFISH)) continue;
+			return;
+		}
+	}
+
+	/*
+	 * Places the values that have only one possible cell in the first unit
+	 * that has any.
+	 */
+	private boolean hiddenSingles() {
+		for (int[] unit : UNITS) {
+			int once = 0, twice = 0, solved = 0;
+			for (int cell : unit) {
+				int mask = candidates[cell];
+				if (values[cell] != 0) {
+					solved |= mask;
+					continue;
+				}
+				twice |= once & mask;
+				once |= mask;
+			}
+			if ((once | solved) != ALL) {
+				contradiction = true;
+				return true;
+			}
+			int hidden = once & ~twice & ~solved;
+			if (hidden == 0) continue;
+			while (hidden != 0 && !contradiction) {
+				int bit = Integer.lowestOneBit(hidden);
+				hidden &= ~bit;
+				int target = -1;
+				for (int cell : unit) {
+					if (values[cell] == 0 && (candidates[cell] & bit) != 0) {
+						target = cell;
+						break;
+					}
+				}
+				if (target == -1) contradiction = true;
+				else place(target, Integer.numberOfTrailingZeros(bit) + 1, Technique.HIDDEN_SINGLE);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private boolean nakedSingles() {
+		boolean found = false;
+		for (int cell = 0; cell < 81 && !contradiction; cell++) {
+			int mask = candidates[cell];
+			if (values[cell] != 0 || (mask & (mask - 1)) != 0) continue;
+			place(cell, Integer.numberOfTrailingZeros(mask) + 1, Technique.NAKED_SINGLE);
+			found = true;
+		}
+		return found;
+	}
+
+	/*
+	 * When a value's only places in a box are all in one row or column,
+	 * it can be removed from the rest of that row or column.
+	 */
+	private boolean pointing() {
+		for (int box = 18; box < 27; box++) {
+			for (int bit = 1; bit < ALL; bit <<= 1) {
+				int row = -1, column = -1, count = 0;
+				for (int cell : UNITS[box]) {
+					if (values[cell] != 0 || (candidates[cell] & bit) == 0) continue;
+					row = count == 0 || row == cell / 9 ? cell / 9 : -2;
+					column = count == 0 || column == 9 + cell % 9 ? 9 + cell % 9 : -2;
+					count++;
+				}
+				if (count < 2) continue;
+				int line = row >= 0 ? row : column;
+				if (line >= 0 && eliminateOutside(line, box, bit, Technique.POINTING)) return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * When a value's only places in a row or column are all in one box, it
+	 * can be removed from the rest of that box.
+	 */
+	private boolean boxLineReduction() {
+		for (int line = 0; line < 18; line++) {
+			for (int bit = 1; bit < ALL; bit <<= 1) {
+				int box = -1, count = 0;
+				for (int cell : UNITS[line]) {
+					if (values[cell] != 0 || (candidates[cell] & bit) == 0) continue;
+					box = count == 0 || box == CELL_UNITS[cell][2] ? CELL_UNITS[cell][2] : -2;
+					count++;
+				}
+				if (count < 2 || box < 0) continue;
+				if (eliminateOutside(box, line, bit, Technique.BOX_LINE_REDUCTION)) return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Removes the value from the cells of the unit that are not in the
+	 * other unit.
+	 */
+	private boolean eliminateOutside(int unit, int other, int bit, Technique technique) {
+		boolean found = false;
+		for (int cell : UNITS[unit]) {
+			if (values[cell] != 0 || (candidates[cell] & bit) == 0) continue;
+			if (CELL_UNITS[cell][0] == other || CELL_UNITS[cell][1] == other || CELL_UNITS[cell][2] == other) continue;
+			eliminate(cell, bit, technique);
+			found = true;
+		}
+		if (found) counts[technique.ordinal()]++;
+		return found;
+	}
+
+	/*
+	 * When the candidates of <size> cells of a unit are limited to <size>
+	 * values, those values can be removed from the unit's other cells.
+	 */
+	private boolean nakedSubsets(int size, Technique technique) {
+		for (int[] unit : UNITS) {
+			int count = 0;
+			int open = 0;
+			for (int cell : unit) {
+				if (values[cell] != 0) continue;
+				open++;
+				int bits = Integer.bitCount(candidates[cell]);
+				if (bits < 2 || bits > size) continue;
+				masks[count] = candidates[cell];
+				members[count++] = cell;
+			}
+			if (count < size || open <= size) continue;
+			for (int combination = (1 << size) - 1; combination < (1 << count); combination = nextCombination(combination)) {
+				int union = union(combination);
+				if (Integer.bitCount(union) != size) continue;
+				boolean found = false;
+				for (int cell : unit) {
+					if (values[cell] != 0 || (candidates[cell] & union) == 0 || isMember(cell, combination)) continue;
+					eliminate(cell, union, technique);
+					found = true;
+				}
+				if (found) {
+					counts[technique.ordinal()]++;
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * When <size> values of a unit are limited to <size> cells, the other
+	 * candidates can be removed from those cells.
+	 */
+	private boolean hiddenSubsets(int size, Technique technique) {
+		for (int[] unit : UNITS) {
+			int count = 0;
+			for (int value = 0; value < 9; value++) {
+				int bit = 1 << value;
+				int positions = 0;
+				for (int index = 0; index < 9; index++) {
+					int cell = unit[index];
+					if (values[cell] == 0 && (candidates[cell] & bit) != 0) positions |= 1 << index;
+				}
+				int bits = Integer.bitCount(positions);
+				if (bits < 2 || bits > size) continue;
+				masks[count] = positions;
+				members[count++] = bit;
+			}
+			if (count < size) continue;
+			for (int combination = (1 << size) - 1; combination < (1 << count); combination = nextCombination(combination)) {
+				int positions = union(combination);
+				if (Integer.bitCount(positions) != size) continue;
+				int keep = 0;
+				for (int index = 0; index < count; index++) {
+					if ((combination & (1 << index)) != 0) keep |= members[index];
+				}
+				boolean found = false;
+				for (int index = 0; index < 9; index++) {
+					int cell = unit[index];
+					if ((positions & (1 << index)) == 0 || (candidates[cell] & ~keep) == 0) continue;
+					eliminate(cell, ~keep & ALL, technique);
+					found = true;
+				}
+				if (found) {
+					counts[technique.ordinal()]++;
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * When a value's places in <size> rows are limited to <size> columns,
+	 * it can be removed from the rest of those columns (X-Wing for 2,
+	 * Swordfish for 3). The same holds with rows and columns swapped.
+	 */
+	private boolean fish(int size, Technique technique) {
+		for (int bit = 1; bit < ALL; bit <<= 1) {
+			for (int base = 0; base < 18; base += 9) {
+				int cover = 9 - base;
+				int count = 0;
+				for (int line = base; line < base + 9; line++) {
+					int positions = 0;
+					for (int index = 0; index < 9; index++) {
+						int cell = UNITS[line][index];
+						if (values[cell] == 0 && (candidates[cell] & bit) != 0) positions |= 1 << index;
+					}
+					int bits = Integer.bitCount(positions);
+					if (bits < 2 || bits > size) continue;
+					masks[count] = positions;
+					members[count++] = line;
+				}
+				if (count < size) continue;
+				for (int combination = (1 << size) - 1; combination < (1 << count); combination = nextCombination(combination)) {
+					int positions = union(combination);
+					if (Integer.bitCount(positions) != size) continue;
+					boolean found = false;
+					for (int index = 0; index < 9; index++) {
+						if ((positions & (1 << index)) == 0) continue;
+						for (int cell : UNITS[cover + index]) {
+							if (values[cell] != 0 || (candidates[cell] & bit) == 0) continue;
+							if (isMember(CELL_UNITS[cell][base == 0 ? 0 : 1], combination)) continue;
+							eliminate(cell, bit, technique);
+							found = true;
+						}
+					}
+					if (found) {
+						counts[technique.ordinal()]++;
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Answers the next larger combination with the same number of members
+	 * (Gosper's hack).
+	 */
+	private static int nextCombination(int combination) {
+		int lowest = combination & -combination;
+		int ripple = combination + lowest;
+		return (((ripple ^ combination) >>> 2) / lowest) | ripple;
+	}
+
+	private int union(int combination) {
+		int union = 0;
+		for (int index = 0; combination != 0; index++, combination >>>= 1) {
+			if ((combination & 1) != 0) union |= masks[index];
+		}
+		return union;
+	}
+
+	private boolean isMember(int member, int combination) {
+		for (int index = 0; combination != 0; index++, combination >>>= 1) {
+			if ((combination & 1) != 0 && members[index] == member) return true;
+		}
+		return false;
+	}
+
+	/*
+	 * Places a value found by a technique and records the deduction.
+	 */
+	private void place(int cell, int value, Technique technique) {
+		assign(cell, value);
+		// Every guess counts towards the grade, even the ones backed out of.
+		if (technique == Technique.GUESS) guesses++;
+		else counts[technique.ordinal()]++;
+		if (!recording) return;
+		record(cell, value, true, technique);
+		if (trace != null) trace.place(cell / 9, cell % 9, value);
+	}
+
+	/*
+	 * Sets the value of a cell and removes it from the cell's peers.
+	 */
+	private void assign(int cell, int value) {
+		int bit = 1 << (value - 1);
+		values[cell] = value;
+		candidates[cell] = bit;
+		empty--;
+		for (int peer : PEERS[cell]) {
+			int mask = candidates[peer];
+			if ((mask & bit) == 0) continue;
+			if (values[peer] != 0 || mask == bit) contradiction = true;
+			candidates[peer] = mask & ~bit;
+		}
+	}
+
+	/*
+	 * Removes candidates found by a technique and records each removal.
+	 */
+	private void eliminate(int cell, int mask, Technique technique) {
+		int removed = candidates[cell] & mask;
+		candidates[cell] &= ~mask;
+		if (candidates[cell] == 0) contradiction = true;
+		if (!recording) return;
+		while (removed != 0) {
+			int bit = Integer.lowestOneBit(removed);
+			removed &= ~bit;
+			record(cell, Integer.numberOfTrailingZeros(bit) + 1, false, technique);
+		}
+	}
+
+	private void record(int cell, int value, boolean placement, Technique technique) {
+		if (deductionCount == deductions.length) {
+			int[] grown = new int[deductions.length * 2];
+			System.arraycopy(deductions, 0, grown, 0, deductionCount);
+			deductions = grown;
+		}
+		deductions[deductionCount++] = (technique.ordinal() << 12) | (placement ? 0x800 : 0) | (value << 7) | cell;
+	}
+
+	private void save(int depth) {
+		System.arraycopy(candidates, 0, savedCandidates[depth], 0, 81);
+		System.arraycopy(values, 0, savedValues[depth], 0, 81);
+		System.arraycopy(counts, 0, savedCounts[depth], 0, TECHNIQUES);
+		savedEmpty[depth] = empty;
+		savedDeductionCount[depth] = deductionCount;
+	}
+
+	/*
+	 * Restores the state saved at the depth. When backing out of a guess,
+	 * the deductions made since are forgotten and the cells that were
+	 * filled in since are recorded as removed in the trace (if there is
+	 * one).
+	 */
+	private void restore(int depth, boolean backtrack) {
+		if (backtrack) {
+			if (recording && trace != null) {
+				for (int cell = 0; cell < 81; cell++) {
+					if (values[cell] != 0 && savedValues[depth][cell] == 0) trace.remove(cell / 9, cell % 9);
+				}
+			}
+			System.arraycopy(savedCounts[depth], 0, counts, 0, TECHNIQUES);
+			deductionCount = savedDeductionCount[depth];
+		}
+		System.arraycopy(savedCandidates[depth], 0, candidates, 0, 81);
+		System.arraycopy(savedValues[depth], 0, values, 0, 81);
+		empty = savedEmpty[depth];
+		contradiction = false;
+	}
+}
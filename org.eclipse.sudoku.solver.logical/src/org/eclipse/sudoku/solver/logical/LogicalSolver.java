@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.logical;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
+import org.eclipse.sudoku.core.models.Cell;
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.solvers.SolverTrace;
+import org.eclipse.sudoku.core.solvers.TraceableSudokuBoardSolver;
+
+/**
+ * This solver adapts a {@link LogicalEngine} to the
+ * {@link TraceableSudokuBoardSolver} interface, and grades boards (see
+ * {@link #grade(SudokuBoard)}).
+ */
+public class LogicalSolver implements TraceableSudokuBoardSolver {
+	private final LogicalEngine engine = new LogicalEngine();
+
+	public void solve(SudokuBoard board, IProgressMonitor monitor) throws CannotSolveSudokuBoardException {
+		solve(board, monitor, null);
+	}
+
+	public void solve(SudokuBoard board, IProgressMonitor monitor, SolverTrace trace) throws CannotSolveSudokuBoardException {
+		Grade grade;
+		engine.setTrace(trace);
+		try {
+			engine.load(getValues(board));
+			grade = engine.grade(monitor);
+		} finally {
+			engine.setTrace(null);
+		}
+		if (!grade.isSolved()) {
+			if (monitor.isCanceled()) return;
+			throw new CannotSolveSudokuBoardException();
+		}
+		int[] solution = engine.getSolution();
+		for (int index = 0; index < 81; index++) {
+			Cell cell = board.getCell(index / 9, index % 9);
+			if (cell.isEmpty()) cell.setValue(solution[index]);
+		}
+	}
+
+	public int countSolutions(SudokuBoard board, int limit) {
+		if (!engine.load(getValues(board))) return 0;
+		return engine.countSolutions(limit);
+	}
+
+	public boolean isUnique(SudokuBoard board) {
+		return countSolutions(board, 2) == 1;
+	}
+
+	/**
+	 * This method grades the board by solving a copy of it. The board is
+	 * not changed.
+	 */
+	public Grade grade(SudokuBoard board) {
+		return grade(getValues(board));
+	}
+
+	/**
+	 * This method grades the puzzle held in the array, which contains the
+	 * value of each cell in row-major order (0 for an empty cell). The
+	 * array is not changed.
+	 */
+	public Grade grade(int[] values) {
+		engine.load(values);
+		return engine.grade(null);
+	}
+
+	private int[] getValues(SudokuBoard board) {
+		int[] values = new int[81];
+		for (int index = 0; index < 81; index++) {
+			values[index] = board.getValue(index / 9, index % 9);
+		}
+		return values;
+	}
+}
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.solver.logical;
+
+/**
+ * The techniques that the {@link LogicalEngine} uses, in the order that it
+ * tries them. Each technique has a cost that is used to score puzzles (see
+ * {@link Grade#getScore()}) and the difficulty of the puzzles that need
+ * it.
+ */
+public enum Technique {
+	HIDDEN_SINGLE("Hidden Single", 10, Difficulty.EASY),
+	NAKED_SINGLE("Naked Single", 15, Difficulty.EASY),
+	POINTING("Pointing", 30, Difficulty.MEDIUM),
+	BOX_LINE_REDUCTION("Box/Line Reduction", 35, Difficulty.MEDIUM),
+	NAKED_PAIR("Naked Pair", 50, Difficulty.HARD),
+	HIDDEN_PAIR("Hidden Pair", 60, Difficulty.HARD),
+	NAKED_TRIPLE("Naked Triple", 70, Difficulty.HARD),
+	HIDDEN_TRIPLE("Hidden Triple", 80, Difficulty.HARD),
+	X_WING("X-Wing", 100, Difficulty.EXPERT),
+	SWORDFISH("Swordfish", 140, Difficulty.EXPERT),
+	GUESS("Guess", 250, Difficulty.DIABOLICAL);
+
+	private final String name;
+	private final int cost;
+	private final Difficulty difficulty;
+
+	private Technique(String name, int cost, Difficulty difficulty) {
+		this.name = name;
+		this.cost = cost;
+		this.difficulty = difficulty;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getCost() {
+		return cost;
+	}
+
+	public Difficulty getDifficulty() {
+		return difficulty;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
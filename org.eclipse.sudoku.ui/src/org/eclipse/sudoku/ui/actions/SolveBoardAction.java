@@ -24,10 +24,10 @@ import org.eclipse.sudoku.core.exceptions.CannotSolveSudokuBoardException;
 import org.eclipse.sudoku.core.exceptions.SudokuBoardSolverUnavailableException;
 import org.eclipse.sudoku.core.internal.Solver;
 import org.eclipse.sudoku.core.listeners.SudokuBoardChangeListener;
-import org.eclipse.sudoku.core.listeners.SudokuBoardStateAdapter;
-import org.eclipse.sudoku.core.listeners.SudokuBoardStateListener;
 import org.eclipse.sudoku.core.models.SudokuBoard;
 import org.eclipse.sudoku.core.models.SudokuGame;
+import org.eclipse.sudoku.core.solvers.SolverTrace;
+import org.eclipse.sudoku.ui.views.TracePlayer;
 import org.eclipse.swt.events.MenuAdapter;
 import org.eclipse.swt.events.MenuEvent;
 import org.eclipse.swt.widgets.Control;
@@ -38,6 +38,14 @@ import org.eclipse.ui.IWorkbenchWindowPulldownDelegate2;
 
 @SuppressWarnings("serial")
 public class SolveBoardAction implements IWorkbenchWindowPulldownDelegate2 {
+	/*
+	 * Solutions are replayed at no fewer than this many steps per second,
+	 * and faster if that is what it takes to replay the whole trace in the
+	 * maximum number of seconds.
+	 */
+	private static final int MINIMUM_PLAYBACK_RATE = 20;
+	private static final int MAXIMUM_PLAYBACK_SECONDS = 10;
+
 	private Menu menu;
 
 	private Menu dropDown;
@@ -45,6 +53,8 @@ public class SolveBoardAction implements IWorkbenchWindowPulldownDelegate2 {
 	private Solver lastSolver;
 
 	private IWorkbenchWindow window;
+
+	private TracePlayer player;
 	
 	/**
 	 * This method returns the menu that will be connected into the menu bar.
@@ -133,6 +143,7 @@ public class SolveBoardAction implements IWorkbenchWindowPulldownDelegate2 {
 	 * disposed.
 	 */
 	public void dispose() {
+		finishPlayer();
 		if (menu != null) {
 			clearMenu(menu);
 			menu.dispose();
@@ -162,7 +173,7 @@ public class SolveBoardAction implements IWorkbenchWindowPulldownDelegate2 {
 	}
 
 	protected void solve(final Solver solver) {
-		
+		finishPlayer();
 		lastSolver = solver;
 		new Job("Solve puzzle") {
 			protected IStatus run(final IProgressMonitor monitor) {				
@@ -170,16 +181,13 @@ public class SolveBoardAction implements IWorkbenchWindowPulldownDelegate2 {
 				SudokuBoard board = game.getBoard();
 								
 				SudokuBoardChangeListener boardChangeListener = getBoardChangeListener(monitor);
-				SudokuBoardStateListener boardStateListener = getBoardStateListener(monitor);
 				
 				game.addSudokuBoardChangeListener(boardChangeListener );
-				board.addSudokuBoardStateListener(boardStateListener);
 				try {
 					doJob(solver, monitor, board);
 				} finally {
 					monitor.done();
 					game.removeSudokuBoardChangeListener(boardChangeListener);
-					board.removeSudokuBoardStateListener(boardStateListener);
 				}
 				
 				if (monitor.isCanceled()) return Status.CANCEL_STATUS;
@@ -189,7 +197,8 @@ public class SolveBoardAction implements IWorkbenchWindowPulldownDelegate2 {
 			private void doJob(final Solver solver, final IProgressMonitor monitor, SudokuBoard board) {
 				try {
 					monitor.beginTask("Solve", IProgressMonitor.UNKNOWN);
-					solver.solve(board, monitor);
+					SolverTrace trace = solver.trace(board, monitor);
+					if (!monitor.isCanceled()) play(board, trace);
 				} catch (SudokuBoardSolverUnavailableException e) {
 					// TODO Need a better message.
 					message(solver.getName(), "The solver is not available.");
@@ -199,25 +208,6 @@ public class SolveBoardAction implements IWorkbenchWindowPulldownDelegate2 {
 				}
 			}
 			
-			/**
-			 * This listener is added to the SudokuBoard before the solution
-			 * is computed. It slows down the screen renderings so that the
-			 * the visuals are a little cooler...
-			 */
-			private SudokuBoardStateListener getBoardStateListener(final IProgressMonitor monitor) {
-				return new SudokuBoardStateAdapter() {
-					public void boardChanged(SudokuBoard board) {
-						try {
-							if (!board.isValid()) {
-								monitor.setCanceled(true);
-							}
-							Thread.sleep(200);
-						} catch (InterruptedException e) {
-						}
-					}
-				};
-			}
-
 			private SudokuBoardChangeListener getBoardChangeListener(final IProgressMonitor monitor) {
 				return new SudokuBoardChangeListener() {
 					public void boardChanged(SudokuBoard newBoard, SudokuBoard oldBoard) {
@@ -229,6 +219,31 @@ public class SolveBoardAction implements IWorkbenchWindowPulldownDelegate2 {
 
 	}
 
+	/**
+	 * This method replays the trace onto the board. The solver has already
+	 * finished, so the rate of the replay doesn't slow it down.
+	 */
+	protected void play(final SudokuBoard board, final SolverTrace trace) {
+		window.getShell().getDisplay().asyncExec(new Runnable() {
+			public void run() {
+				if (SudokuCoreActivator.getGame().getBoard() != board) return;
+				finishPlayer();
+				player = new TracePlayer(window.getShell().getDisplay(), board, trace);
+				player.play(Math.max(MINIMUM_PLAYBACK_RATE, trace.size() / MAXIMUM_PLAYBACK_SECONDS));
+			}
+		});
+	}
+
+	/*
+	 * Any replay that is still running is finished rather than stopped
+	 * so that the board is not left half solved.
+	 */
+	private void finishPlayer() {
+		if (player == null) return;
+		player.finish();
+		player = null;
+	}
+
 	protected void message(final String title, final String message) {
 		window.getShell().getDisplay().syncExec(new Runnable() {
 			public void run() {
@@ -10,8 +10,6 @@
  *******************************************************************************/
 package org.eclipse.sudoku.ui.drawers;
 
-import java.util.Iterator;
-
 import org.eclipse.sudoku.core.models.Cell;
 import org.eclipse.sudoku.ui.views.DrawingContext;
 import org.eclipse.swt.SWT;
@@ -86,16 +84,16 @@ public class CellDrawer {
 		
 		int width = cellSize / 3;
 		gc.setFont(context.getCellHintFont(width * 3 / 4));
-		Iterator<Integer> values = cell.getPossibleValues().iterator();
-		for (int column=0;column < 3; column++) {
-			for (int row=0;row < 3; row++) {
-				if (!values.hasNext()) return;
-				int x = left + row * width;
-				int y = top + column * width;
-				String text = String.valueOf(values.next());
-				Point textExtent = gc.stringExtent(text);
-				gc.drawText(text, x + (width - textExtent.x) / 2, y + (width - textExtent.y) / 2, true);
-			}
+		int candidates = cell.getCandidateMask();
+		int position = 0;
+		for (int value = 1; value < 10; value++) {
+			if ((candidates & (1 << (value - 1))) == 0) continue;
+			int x = left + (position % 3) * width;
+			int y = top + (position / 3) * width;
+			position++;
+			String text = String.valueOf(value);
+			Point textExtent = gc.stringExtent(text);
+			gc.drawText(text, x + (width - textExtent.x) / 2, y + (width - textExtent.y) / 2, true);
 		}
 		
 	}
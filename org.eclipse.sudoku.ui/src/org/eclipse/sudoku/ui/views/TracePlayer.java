@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2006 The Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Wayne Beaton (The Eclipse Foundation) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.sudoku.ui.views;
+
+import org.eclipse.sudoku.core.models.SudokuBoard;
+import org.eclipse.sudoku.core.solvers.SolverTrace;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Instances of this class replay a {@link SolverTrace} onto a board at a
+ * chosen rate, so that a view showing the board animates the steps that a
+ * solver took. The solver runs at full speed beforehand; the playback
+ * rate only affects how quickly the recorded steps are shown.
+ * <p>
+ * The steps are applied from timers on the display's thread. At high
+ * rates, several steps are applied on each timer in a single batch (see
+ * {@link SudokuBoard#beginBatch()}) so the board is redrawn no more than
+ * about 50 times a second. All methods must be called on the display's
+ * thread.
+ */
+public class TracePlayer {
+	private static final int MINIMUM_INTERVAL = 20;
+
+	private final Display display;
+	private final SudokuBoard board;
+	private final SolverTrace trace;
+
+	private int position = 0;
+	private int interval;
+	private int stepsPerInterval;
+	private boolean playing = false;
+
+	private final Runnable timer = new Runnable() {
+		public void run() {
+			if (!playing) return;
+			step(stepsPerInterval);
+			if (position < trace.size()) display.timerExec(interval, this);
+			else playing = false;
+		}
+	};
+
+	public TracePlayer(Display display, SudokuBoard board, SolverTrace trace) {
+		this.display = display;
+		this.board = board;
+		this.trace = trace;
+		setRate(10);
+	}
+
+	/**
+	 * This method starts (or resumes) playing the trace at the given
+	 * number of steps per second. When starting from the beginning, the
+	 * board is first put back into the state that the trace starts from.
+	 */
+	public void play(int stepsPerSecond) {
+		setRate(stepsPerSecond);
+		if (position == 0) trace.reset(board);
+		if (playing) return;
+		playing = true;
+		display.timerExec(interval, timer);
+	}
+
+	/**
+	 * This method changes the playback rate. It can be called while the
+	 * trace is playing.
+	 */
+	public void setRate(int stepsPerSecond) {
+		stepsPerSecond = Math.max(1, stepsPerSecond);
+		interval = Math.max(MINIMUM_INTERVAL, 1000 / stepsPerSecond);
+		stepsPerInterval = Math.max(1, stepsPerSecond * interval / 1000);
+	}
+
+	/**
+	 * This method pauses playback. The board is left showing the current
+	 * step.
+	 */
+	public void stop() {
+		playing = false;
+		display.timerExec(-1, timer);
+	}
+
+	/**
+	 * This method stops playback and applies all of the remaining steps,
+	 * leaving the board in the state that the solver finished in.
+	 */
+	public void finish() {
+		stop();
+		step(trace.size() - position);
+	}
+
+	public boolean isPlaying() {
+		return playing;
+	}
+
+	/**
+	 * This method answers the number of steps that have been applied.
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	private void step(int count) {
+		board.beginBatch();
+		try {
+			for (; count > 0 && position < trace.size(); count--) {
+				trace.apply(board, position++);
+			}
+		} finally {
+			board.endBatch();
+		}
+	}
+}